@@ -0,0 +1,20 @@
+#!/usr/bin/env bash
+# Lanza el gestor de juegos desde el JAR empaquetado. Si existe la caché AOT
+# generada con "mvn -P entrenamiento-aot package", la usa; si la caché no
+# corresponde al JAR o al JDK actual, la JVM la ignora y arranca sin ella.
+set -e
+cd "$(dirname "$0")"
+
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+JAR="target/gameManager-1.0-SNAPSHOT.jar"
+CACHE="target/gameManager.aot"
+
+if [ ! -f "$JAR" ]; then
+    echo "No existe $JAR; ejecutar antes: mvn package" >&2
+    exit 1
+fi
+
+if [ -f "$CACHE" ]; then
+    exec "$JAVA" -XX:AOTCache="$CACHE" -cp "$JAR" core.Launcher "$@"
+fi
+exec "$JAVA" -cp "$JAR" core.Launcher "$@"
@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# Compara el arranque en frío con y sin la caché AOT.
+#
+#   ./medir-arranque.sh [repeticiones]
+#
+# Cada corrida es la de entrenamiento (sin interfaz: arranque, carga de
+# plugins, creación de los juegos), así las dos variantes hacen el mismo
+# trabajo. Se alternan para repartir el ruido y se informa la mediana del
+# tiempo total del proceso y del hito "plugins cargados" de MedidorArranque.
+set -e
+cd "$(dirname "$0")"
+
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+JAR="target/gameManager-1.0-SNAPSHOT.jar"
+CACHE="target/gameManager.aot"
+REPETICIONES="${1:-10}"
+
+if [ ! -f "$JAR" ] || [ ! -f "$CACHE" ]; then
+    echo "Faltan $JAR o $CACHE; ejecutar antes: mvn -P entrenamiento-aot package" >&2
+    exit 1
+fi
+
+# Una corrida; imprime "<ms del proceso> <ms de main hasta plugins cargados>"
+corrida() {
+    local inicio fin salida
+    inicio=$(date +%s%N)
+    if ! salida=$("$JAVA" "$@" -Djava.awt.headless=true -Dgamemanager.entrenamiento=true \
+        -cp "$JAR" core.Launcher 2>&1); then
+        echo "Falló la corrida con opciones: $*" >&2
+        printf '%s\n' "$salida" | tail -n 5 >&2
+        return 1
+    fi
+    fin=$(date +%s%N)
+    local plugins
+    plugins=$(printf '%s\n' "$salida" | sed -n 's/^ARRANQUE: plugins cargados.* a \([0-9]*\) ms de main.*/\1/p')
+    echo "$(( (fin - inicio) / 1000000 )) ${plugins:--}"
+}
+
+mediana() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR == 0) print "-"; else if (NR % 2) print v[(NR + 1) / 2]; else print int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+sin_total=(); sin_plugins=(); con_total=(); con_plugins=()
+# Una corrida de cada una sin medir, para que el sistema de archivos ya tenga el JAR
+corrida > /dev/null
+corrida -XX:AOTCache="$CACHE" -XX:AOTMode=on > /dev/null
+
+for ((i = 1; i <= REPETICIONES; i++)); do
+    read -r total plugins < <(corrida)
+    sin_total+=("$total"); sin_plugins+=("$plugins")
+    # AOTMode=on: falla en vez de medir sin caché si no se puede usar
+    read -r total plugins < <(corrida -XX:AOTCache="$CACHE" -XX:AOTMode=on)
+    con_total+=("$total"); con_plugins+=("$plugins")
+    echo "Corrida $i/$REPETICIONES: sin caché ${sin_total[-1]} ms, con caché ${con_total[-1]} ms"
+done
+
+m_sin=$(printf '%s\n' "${sin_total[@]}" | mediana)
+m_con=$(printf '%s\n' "${con_total[@]}" | mediana)
+echo
+printf '%-24s %9s  %16s\n' "Mediana de $REPETICIONES corridas" "proceso" "plugins cargados"
+printf '%-24s %6s ms  %13s ms\n' "Sin caché AOT" "$m_sin" "$(printf '%s\n' "${sin_plugins[@]}" | grep -v '^-$' | mediana)"
+printf '%-24s %6s ms  %13s ms\n' "Con caché AOT" "$m_con" "$(printf '%s\n' "${con_plugins[@]}" | grep -v '^-$' | mediana)"
+if [ "$m_sin" -gt 0 ]; then
+    echo "Mejora del proceso: $(( (m_sin - m_con) * 100 / m_sin ))%"
+fi
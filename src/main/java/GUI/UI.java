@@ -1,13 +1,21 @@
 package GUI;
 
+import core.DescriptorJuego;
+import core.EstadisticasPlugin;
 import core.GameManager;
+import core.MedidorArranque;
+import core.ObservadorJuegos;
+import core.PerfilClase;
+import core.PerfilJar;
 import model.IGameFunction;
 import model.IGameListener;
 import model.Stat;
+import records.LeaderboardSnapshot;
 import records.RecordsManager;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
 import java.awt.*;
 import java.util.HashMap;
 import java.util.List;
@@ -17,8 +25,10 @@ public class UI extends JFrame {
     private JDesktopPane desktopPane;
     private RecordsManager recordsManager;
     private GameManager gameManager;
-    private Map<String, IGameFunction> juegosMap;
+    private Map<String, DescriptorJuego> juegosMap;
+    private Map<DescriptorJuego, JButton> botonesJuegos;
     private JPanel panelJuegos;
+    private JLabel lblCargandoPlugins;
 
     public UI() {
         super("Gestor de Juegos - Plataforma Profesional");
@@ -29,57 +39,65 @@ public class UI extends JFrame {
         recordsManager = new RecordsManager();
         gameManager = GameManager.getInstance();
         juegosMap = new HashMap<>();
+        botonesJuegos = new HashMap<>();
+
+        // Antes de armar la lista, para no perder cambios; los avisos llegan al EDT después del constructor
+        gameManager.agregarObservador(new ObservadorJuegos() {
+            @Override
+            public void juegoAgregado(DescriptorJuego juego) {
+                SwingUtilities.invokeLater(() -> {
+                    if (agregarBotonJuego(juego)) {
+                        refrescarPanelJuegos();
+                        recordsManager.precargar(java.util.Collections.singleton(juego.getNombre()));
+                    }
+                });
+            }
+
+            @Override
+            public void juegoEliminado(DescriptorJuego juego) {
+                SwingUtilities.invokeLater(() -> quitarBotonJuego(juego));
+            }
+
+            @Override
+            public void cargaInicialTerminada() {
+                SwingUtilities.invokeLater(() -> lblCargandoPlugins.setVisible(false));
+            }
+        });
 
         setLayout(new BorderLayout());
 
         JPanel panelLateral = crearPanelLateral();
         add(panelLateral, BorderLayout.WEST);
 
-        desktopPane = new JDesktopPane();
+        desktopPane = new JDesktopPane() {
+            private boolean pintado;
+
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                if (!pintado) {
+                    pintado = true;
+                    // Lo que siga en la cola de eventos ya es respuesta al usuario
+                    SwingUtilities.invokeLater(MedidorArranque::primerCuadroInteractivo);
+                }
+            }
+        };
         desktopPane.setBackground(new Color(245, 245, 250));
         add(desktopPane, BorderLayout.CENTER);
 
         JPanel panelSuperior = crearPanelSuperior();
         add(panelSuperior, BorderLayout.NORTH);
 
-        setVisible(true);
-        // MÉTODO TEMPORAL DE PRUEBA - Eliminar después de las pruebas
-        probarJuegoExterno();
-    }
-    // MÉTODO TEMPORAL DE PRUEBA - Agregar después del constructor
-    private void probarJuegoExterno() {
-        System.out.println("\n=== PRUEBA DE JUEGO EXTERNO ===");
-        
-        for (Map.Entry<String, IGameFunction> entrada : juegosMap.entrySet()) {
-            String nombre = entrada.getKey();
-            IGameFunction juego = entrada.getValue();
-            
-            // Verificar si es externo
-            if (core.PluginLoader.getNombreOriginal(juego) != null) {
-                System.out.println("\nProbando juego externo: " + nombre);
-                System.out.println("  - Clase: " + juego.getClass().getName());
-                
-                try {
-                    // Probar getStats
-                    Stat stats = juego.getStats();
-                    System.out.println("  - getStats() funciona: " + stats.getClave());
-                    
-                    // Probar setGameListener
-                    juego.setGameListener(stat -> {
-                        System.out.println("  - Listener funciona correctamente");
-                    });
-                    System.out.println("  - setGameListener() funciona");
-                    
-                } catch (Exception e) {
-                    System.err.println("  - ERROR: " + e.getMessage());
-                    e.printStackTrace();
-                }
+        addWindowListener(new java.awt.event.WindowAdapter() {
+            @Override
+            public void windowClosing(java.awt.event.WindowEvent e) {
+                gameManager.detenerVigilancia();
+                recordsManager.cerrar();
             }
-        }
-        
-        System.out.println("\n=== FIN DE PRUEBA ===\n");
-    }
+        });
 
+        setVisible(true);
+    }
 
     private JPanel crearPanelSuperior() {
         JPanel panel = new JPanel(new BorderLayout());
@@ -95,17 +113,25 @@ public class UI extends JFrame {
 
         JButton btnRecords = crearBotonHerramienta("Ver Records", new Color(46, 204, 113));
         JButton btnRecargar = crearBotonHerramienta("Recargar Plugins", new Color(241, 196, 15));
+        JButton btnPerfil = crearBotonHerramienta("Perfil de Carga", new Color(155, 89, 182));
 
         btnRecords.addActionListener(e -> mostrarRecords());
+        btnPerfil.addActionListener(e -> mostrarPerfilCarga());
         btnRecargar.addActionListener(e -> {
+            if (gameManager.isCargandoPlugins()) {
+                JOptionPane.showMessageDialog(this, "Los plugins todavía se están cargando",
+                    "Recargar Plugins", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            // Los botones se actualizan con los avisos de juegos agregados y quitados
             gameManager.recargarPlugins();
-            actualizarListaJuegos();
             JOptionPane.showMessageDialog(this, "Plugins recargados correctamente", 
                 "Exito", JOptionPane.INFORMATION_MESSAGE);
         });
 
         panelBotones.add(btnRecords);
         panelBotones.add(btnRecargar);
+        panelBotones.add(btnPerfil);
 
         panel.add(lblTitulo, BorderLayout.WEST);
         panel.add(panelBotones, BorderLayout.EAST);
@@ -155,8 +181,16 @@ public class UI extends JFrame {
         scrollPane.setBorder(null);
         scrollPane.getViewport().setBackground(new Color(52, 73, 94));
 
+        // Los juegos de plugins aparecen en la lista a medida que se cargan
+        lblCargandoPlugins = new JLabel("Cargando plugins...");
+        lblCargandoPlugins.setFont(new Font("Arial", Font.ITALIC, 12));
+        lblCargandoPlugins.setForeground(new Color(189, 195, 199));
+        lblCargandoPlugins.setBorder(new EmptyBorder(10, 0, 0, 0));
+        lblCargandoPlugins.setVisible(gameManager.isCargandoPlugins());
+
         panel.add(lblTitulo, BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(lblCargandoPlugins, BorderLayout.SOUTH);
 
         return panel;
     }
@@ -164,35 +198,76 @@ public class UI extends JFrame {
     private void actualizarListaJuegos() {
         panelJuegos.removeAll();
         juegosMap.clear();
+        botonesJuegos.clear();
 
-        List<IGameFunction> juegosDisponibles = gameManager.getJuegosDisponibles();
+        // Solo el catálogo: los juegos se crean al lanzarlos
+        List<DescriptorJuego> juegosDisponibles = gameManager.getDescriptores();
 
-        for (IGameFunction juego : juegosDisponibles) {
-            if (juego == null) {
-                System.err.println("Juego nulo detectado, omitiendo...");
-                continue;
-            }
+        for (DescriptorJuego juego : juegosDisponibles) {
+            agregarBotonJuego(juego);
+        }
 
-            String nombreJuego = obtenerNombreJuego(juego);
-            
-            if (nombreJuego == null || nombreJuego.trim().isEmpty()) {
-                System.err.println("Juego sin nombre detectado: " + juego.getClass().getName());
-                continue;
-            }
+        refrescarPanelJuegos();
 
-            juegosMap.put(nombreJuego, juego);
+        // Leer en segundo plano solo los records de los juegos que se muestran
+        recordsManager.precargar(juegosMap.keySet());
+        
+        System.out.println("Juegos cargados en UI: " + juegosMap.size());
+    }
 
-            JButton btnJuego = crearBotonJuego(nombreJuego);
-            btnJuego.addActionListener(e -> lanzarJuego(nombreJuego, juego));
-            
-            panelJuegos.add(btnJuego);
-            panelJuegos.add(Box.createRigidArea(new Dimension(0, 10)));
+    /**
+     * Agrega el botón de un juego al final de la lista.
+     *
+     * @return false si el juego no es válido o ya tenía botón.
+     */
+    private boolean agregarBotonJuego(DescriptorJuego juego) {
+        if (juego == null) {
+            System.err.println("Juego nulo detectado, omitiendo...");
+            return false;
+        }
+        if (botonesJuegos.containsKey(juego)) {
+            return false;
+        }
+
+        String nombreJuego = juego.getNombre();
+
+        if (nombreJuego == null || nombreJuego.trim().isEmpty()) {
+            System.err.println("Juego sin nombre detectado: " + juego);
+            return false;
         }
 
+        juegosMap.put(nombreJuego, juego);
+
+        JButton btnJuego = crearBotonJuego(nombreJuego);
+        btnJuego.addActionListener(e -> lanzarJuego(nombreJuego, juego));
+
+        botonesJuegos.put(juego, btnJuego);
+        panelJuegos.add(btnJuego);
+        panelJuegos.add(Box.createRigidArea(new Dimension(0, 10)));
+        return true;
+    }
+
+    /**
+     * Quita el botón de un juego y su separador, sin reconstruir la lista.
+     */
+    private void quitarBotonJuego(DescriptorJuego juego) {
+        JButton btnJuego = botonesJuegos.remove(juego);
+        if (btnJuego == null) return;
+
+        int posicion = panelJuegos.getComponentZOrder(btnJuego);
+        if (posicion + 1 < panelJuegos.getComponentCount()) {
+            panelJuegos.remove(posicion + 1);
+        }
+        panelJuegos.remove(posicion);
+        juegosMap.values().removeIf(j -> j == juego);
+        refrescarPanelJuegos();
+
+        System.out.println("Juego quitado de la UI: " + btnJuego.getText());
+    }
+
+    private void refrescarPanelJuegos() {
         panelJuegos.revalidate();
         panelJuegos.repaint();
-        
-        System.out.println("Juegos cargados en UI: " + juegosMap.size());
     }
 
     private JButton crearBotonJuego(String texto) {
@@ -218,35 +293,15 @@ public class UI extends JFrame {
         return btn;
     }
 
-    private String obtenerNombreJuego(IGameFunction juego) {
-        // Primero intentar obtener el nombre del PluginLoader (juegos externos)
-        String nombreOriginal = core.PluginLoader.getNombreOriginal(juego);
-        if (nombreOriginal != null && !nombreOriginal.isEmpty()) {
-            return nombreOriginal;
-        }
-        
-        // Si es juego interno, usar switch normal
-        String nombreCompleto = juego.getClass().getSimpleName();
-        switch (nombreCompleto) {
-            case "ClickerGame": return "Clicker";
-            case "Dice": return "Dados";
-            case "Tictactoe": return "Tres en Raya";
-            default: return nombreCompleto;
-        }
-    }
-
     /**
      * Lanza un juego en su propia ventana independiente.
      * Funciona tanto para juegos internos como externos.
      */
 
-    private void lanzarJuego(String nombre, IGameFunction juego) {
+    private void lanzarJuego(String nombre, DescriptorJuego descriptor) {
         System.out.println("=== Lanzando juego: " + nombre + " ===");
         
-        // Verificar si es un juego externo
-        boolean esJuegoExterno = core.PluginLoader.getNombreOriginal(juego) != null;
-        
-        if (esJuegoExterno) {
+        if (descriptor.isExterno()) {
             // Para juegos externos: mostrar mensaje informativo
             int opcion = JOptionPane.showConfirmDialog(
                 this,
@@ -265,6 +320,8 @@ public class UI extends JFrame {
         }
         
         try {
+            // El juego se crea aquí la primera vez que se lanza
+            IGameFunction juego = descriptor.obtener();
             juego.setGameListener(new IGameListener() {
                 @Override
                 public void onGameFinished(Stat stats) {
@@ -313,23 +370,18 @@ public class UI extends JFrame {
         frame.setSize(650, 400);
         frame.setLayout(new BorderLayout());
 
-        String[] columnas = {"Juego", "Categoria", "Descripcion", "Puntos"};
-        int totalJuegos = juegosMap.size();
-        Object[][] datos = new Object[totalJuegos * 3][4];
-        int index = 0;
-
-        for (String nombreJuego : juegosMap.keySet()) {
-            List<Stat> records = recordsManager.getMejoresRecords(nombreJuego);
-            for (Stat stat : records) {
-                datos[index][0] = nombreJuego;
-                datos[index][1] = stat.getClave();
-                datos[index][2] = stat.getNombre();
-                datos[index][3] = stat.getValor();
-                index++;
+        // La tabla lee directamente la versión publicada por el gestor de records
+        ModeloTablaRecords modelo = new ModeloTablaRecords(recordsManager.getTablaRecords());
+        Timer actualizador = new Timer(500, e -> modelo.actualizar(recordsManager.getTablaRecords()));
+        actualizador.start();
+        frame.addInternalFrameListener(new javax.swing.event.InternalFrameAdapter() {
+            @Override
+            public void internalFrameClosed(javax.swing.event.InternalFrameEvent e) {
+                actualizador.stop();
             }
-        }
+        });
 
-        JTable table = new JTable(datos, columnas);
+        JTable table = new JTable(modelo);
         table.setFont(new Font("Arial", Font.PLAIN, 13));
         table.setRowHeight(30);
         table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 14));
@@ -351,4 +403,287 @@ public class UI extends JFrame {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Muestra el perfil de carga de los plugins: una fila por JAR y, debajo,
+     * las clases probadas del JAR seleccionado. Otra pestaña muestra cuánto
+     * hicieron esperar los juegos de cada JAR al llamarlos.
+     */
+    private void mostrarPerfilCarga() {
+        JInternalFrame frame = new JInternalFrame("Perfil de Carga de Plugins", true, true, true, true);
+        frame.setSize(900, 450);
+        frame.setLayout(new BorderLayout());
+
+        ModeloTablaPerfiles modeloJars = new ModeloTablaPerfiles(gameManager.getPerfilesCarga());
+        ModeloTablaClases modeloClases = new ModeloTablaClases();
+        JTable tablaJars = crearTablaPerfil(modeloJars);
+        JTable tablaClases = crearTablaPerfil(modeloClases);
+        tablaJars.getSelectionModel().addListSelectionListener(e -> {
+            int fila = tablaJars.getSelectedRow();
+            modeloClases.mostrar(fila >= 0 ? modeloJars.getPerfil(tablaJars.convertRowIndexToModel(fila)) : null);
+        });
+
+        ModeloTablaLlamadas modeloLlamadas = new ModeloTablaLlamadas(gameManager.getEstadisticasPlugins());
+        JTable tablaLlamadas = crearTablaPerfil(modeloLlamadas);
+
+        JButton btnActualizar = new JButton("Actualizar");
+        btnActualizar.addActionListener(e -> {
+            modeloJars.mostrar(gameManager.getPerfilesCarga());
+            modeloClases.mostrar(null);
+            modeloLlamadas.mostrar(gameManager.getEstadisticasPlugins());
+        });
+        JPanel panelInferior = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        panelInferior.add(btnActualizar);
+
+        JSplitPane division = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(tablaJars), new JScrollPane(tablaClases));
+        division.setResizeWeight(0.5);
+        JTabbedPane pestanas = new JTabbedPane();
+        pestanas.addTab("Carga", division);
+        pestanas.addTab("Llamadas", new JScrollPane(tablaLlamadas));
+        frame.add(pestanas, BorderLayout.CENTER);
+        frame.add(panelInferior, BorderLayout.SOUTH);
+
+        frame.setLocation(70, 70);
+        desktopPane.add(frame);
+        frame.setVisible(true);
+
+        try {
+            frame.setSelected(true);
+        } catch (java.beans.PropertyVetoException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private JTable crearTablaPerfil(AbstractTableModel modelo) {
+        JTable table = new JTable(modelo);
+        table.setAutoCreateRowSorter(true);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.setFont(new Font("Arial", Font.PLAIN, 12));
+        table.setRowHeight(24);
+        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
+        table.getTableHeader().setBackground(new Color(155, 89, 182));
+        table.getTableHeader().setForeground(Color.WHITE);
+        table.setGridColor(new Color(189, 195, 199));
+        return table;
+    }
+
+    /**
+     * Modelo con una fila por JAR de plugins y sus tiempos de carga en ms.
+     */
+    private static class ModeloTablaPerfiles extends AbstractTableModel {
+        private static final String[] COLUMNAS = {"JAR", "Origen", "Total", "Abrir", "Enumerar", "Cargar",
+                "Probar", "Instanciar", "KB leidos", "KB asignados", "Definidas", "Rechazadas", "Juegos"};
+        private List<PerfilJar> perfiles;
+
+        ModeloTablaPerfiles(List<PerfilJar> perfiles) {
+            this.perfiles = perfiles;
+        }
+
+        void mostrar(List<PerfilJar> perfiles) {
+            this.perfiles = perfiles;
+            fireTableDataChanged();
+        }
+
+        PerfilJar getPerfil(int fila) {
+            return perfiles.get(fila);
+        }
+
+        @Override
+        public int getRowCount() {
+            return perfiles.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNAS.length;
+        }
+
+        @Override
+        public String getColumnName(int columna) {
+            return COLUMNAS[columna];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columna) {
+            if (columna <= 1) return String.class;
+            return columna <= 7 ? Double.class : Long.class;
+        }
+
+        @Override
+        public Object getValueAt(int fila, int columna) {
+            PerfilJar perfil = perfiles.get(fila);
+            switch (columna) {
+                case 0: return perfil.getNombreJar();
+                case 1: return perfil.isDesdeIndice() ? "indice" : "escaneo";
+                case 2: return redondear(perfil.getTotalMs());
+                case 3: return redondear(perfil.getAbrirMs());
+                case 4: return redondear(perfil.getEnumerarMs());
+                case 5: return redondear(perfil.getCargarMs());
+                case 6: return redondear(perfil.getProbarMs());
+                case 7: return redondear(perfil.getInstanciarMs());
+                case 8: return perfil.getBytesLeidos() / 1024;
+                case 9: return perfil.getBytesAsignados() < 0 ? null : perfil.getBytesAsignados() / 1024;
+                case 10: return (long) perfil.getClasesDefinidas();
+                case 11: return (long) perfil.getClasesRechazadas();
+                default: return (long) perfil.getJuegos();
+            }
+        }
+    }
+
+    /**
+     * Modelo con las clases probadas de un JAR y sus tiempos en ms.
+     */
+    private static class ModeloTablaClases extends AbstractTableModel {
+        private static final String[] COLUMNAS = {"Clase", "Resultado", "Total", "Examinar", "Cargar",
+                "Probar", "Instanciar", "Bytes leidos", "KB asignados"};
+        private List<PerfilClase> clases = List.of();
+
+        void mostrar(PerfilJar perfil) {
+            clases = perfil != null ? perfil.getClases() : List.of();
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return clases.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNAS.length;
+        }
+
+        @Override
+        public String getColumnName(int columna) {
+            return COLUMNAS[columna];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columna) {
+            if (columna <= 1) return String.class;
+            return columna <= 6 ? Double.class : Long.class;
+        }
+
+        @Override
+        public Object getValueAt(int fila, int columna) {
+            PerfilClase clase = clases.get(fila);
+            switch (columna) {
+                case 0: return clase.getNombreClase();
+                case 1: return clase.getResultado().name();
+                case 2: return redondear(clase.getTotalMs());
+                case 3: return redondear(clase.getExaminarMs());
+                case 4: return redondear(clase.getCargarMs());
+                case 5: return redondear(clase.getProbarMs());
+                case 6: return redondear(clase.getInstanciarMs());
+                case 7: return clase.getBytesLeidos();
+                default: return clase.getBytesAsignados() < 0 ? null : clase.getBytesAsignados() / 1024;
+            }
+        }
+    }
+
+    /**
+     * Modelo con una fila por JAR y la latencia de las llamadas a sus juegos en ms.
+     */
+    private static class ModeloTablaLlamadas extends AbstractTableModel {
+        private static final String[] COLUMNAS = {"JAR", "Estado", "Llamadas", "Fallos", "Lentas",
+                "Total", "Promedio", "Maximo"};
+        private List<EstadisticasPlugin> estadisticas;
+
+        ModeloTablaLlamadas(List<EstadisticasPlugin> estadisticas) {
+            this.estadisticas = estadisticas;
+        }
+
+        void mostrar(List<EstadisticasPlugin> estadisticas) {
+            this.estadisticas = estadisticas;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return estadisticas.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNAS.length;
+        }
+
+        @Override
+        public String getColumnName(int columna) {
+            return COLUMNAS[columna];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int columna) {
+            if (columna <= 1) return String.class;
+            return columna <= 4 ? Long.class : Double.class;
+        }
+
+        @Override
+        public Object getValueAt(int fila, int columna) {
+            EstadisticasPlugin plugin = estadisticas.get(fila);
+            switch (columna) {
+                case 0: return plugin.getNombreJar();
+                case 1: return plugin.isEnCuarentena() ? "cuarentena" : "activo";
+                case 2: return plugin.getLlamadas();
+                case 3: return plugin.getFallos();
+                case 4: return plugin.getLentas();
+                case 5: return redondear(plugin.getTotalMs());
+                case 6: return redondear(plugin.getPromedioMs());
+                default: return redondear(plugin.getMaximoMs());
+            }
+        }
+    }
+
+    private static double redondear(double ms) {
+        return Math.round(ms * 100) / 100.0;
+    }
+
+    /**
+     * Modelo de la tabla de records sobre una versión de {@link LeaderboardSnapshot}.
+     * No copia filas: cada celda se lee de la versión actual.
+     */
+    private static class ModeloTablaRecords extends AbstractTableModel {
+        private static final String[] COLUMNAS = {"Juego", "Categoria", "Descripcion", "Puntos"};
+        private LeaderboardSnapshot tabla;
+
+        ModeloTablaRecords(LeaderboardSnapshot tabla) {
+            this.tabla = tabla;
+        }
+
+        /**
+         * Cambia a otra versión de la tabla si es distinta de la mostrada.
+         */
+        void actualizar(LeaderboardSnapshot nueva) {
+            if (nueva.getVersion() == tabla.getVersion()) return;
+            tabla = nueva;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return tabla.getCantidadFilas();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNAS.length;
+        }
+
+        @Override
+        public String getColumnName(int columna) {
+            return COLUMNAS[columna];
+        }
+
+        @Override
+        public Object getValueAt(int fila, int columna) {
+            switch (columna) {
+                case 0: return tabla.getJuego(fila);
+                case 1: return tabla.getClave(fila);
+                case 2: return tabla.getNombre(fila);
+                default: return tabla.getValor(fila);
+            }
+        }
+    }
 }
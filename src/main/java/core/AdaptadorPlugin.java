@@ -0,0 +1,303 @@
+package core;
+
+import model.IGameFunction;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleProxies;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Adaptador que presenta un juego externo como {@link IGameFunction}.
+ * Llama al plugin a través del {@link InvocadorPlugin} generado para su clase
+ * al cargarlo, así que cada llamada cuesta lo mismo que una llamada directa.
+ * El listener del plugin tampoco usa reflexión: si su interfaz solo tiene
+ * onGameFinished, la implementa {@link MethodHandleProxies}.
+ *
+ * {@code getStats()} y la creación de instancias corren en el
+ * {@link EjecutorPlugin} de su JAR, en un hilo virtual y con tiempo máximo,
+ * así que un plugin bloqueado no congela al llamador más allá de ese tiempo.
+ * {@link #iniciar()} prepara la clase y la instancia fuera del hilo de eventos
+ * de Swing y solo pasa a ese hilo la llamada a iniciar() del plugin, que arma
+ * su ventana: esa llamada y {@code setGameListener()} corren en el hilo de
+ * eventos o en el del llamador, vigiladas pero sin cortarse. El Stat que
+ * recibe el listener se convierte en el hilo que lo envía.
+ *
+ * Un adaptador creado desde el índice de plugins no carga la clase del juego
+ * ni crea su instancia: las resuelve la primera vez que se usa. Así, listar
+ * un juego no cuesta nada hasta que alguien lo lanza.
+ *
+ * Al descargar el plugin, {@link #liberar()} suelta todas las referencias a
+ * sus clases e instancias: un adaptador que siga guardado en otro lado (un
+ * botón, una lista) ya no impide que se libere el ClassLoader del JAR.
+ */
+final class AdaptadorPlugin implements IGameFunction {
+    private static final MethodHandle NOTIFICAR;
+    private static final MethodHandle ERROR_LISTENER;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            NOTIFICAR = lookup.findVirtual(AdaptadorPlugin.class, "notificar",
+                    MethodType.methodType(void.class, model.IGameListener.class, Object.class));
+            ERROR_LISTENER = lookup.findStatic(AdaptadorPlugin.class, "errorListener",
+                    MethodType.methodType(void.class, Throwable.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** null hasta que se resuelve la clase del juego. */
+    private volatile MetodosPlugin metodos;
+    private final String nombreOriginal;
+    private final String nombreClase;
+    /** null una vez descargado el plugin. */
+    private volatile EjecutorPlugin ejecutor;
+    /** null hasta que se crea la primera instancia. */
+    private volatile Object instanciaActual;
+
+    /**
+     * Adaptador de un juego ya cargado y probado, con su instancia de prueba.
+     */
+    AdaptadorPlugin(Object juegoExterno, MetodosPlugin metodos, String nombreOriginal, String nombreClase,
+                    EjecutorPlugin ejecutor) {
+        this.instanciaActual = juegoExterno;
+        this.metodos = metodos;
+        this.nombreOriginal = nombreOriginal;
+        this.nombreClase = nombreClase;
+        this.ejecutor = ejecutor;
+    }
+
+    /**
+     * Adaptador de un juego que todavía no se cargó: la clase se busca en el
+     * ClassLoader de {@code ejecutor} la primera vez que se usa.
+     */
+    AdaptadorPlugin(String nombreOriginal, String nombreClase, EjecutorPlugin ejecutor) {
+        this(null, null, nombreOriginal, nombreClase, ejecutor);
+    }
+
+    /**
+     * Métodos del juego, cargando su clase si todavía no se hizo.
+     *
+     * @throws IllegalStateException Si el plugin se descargó mientras tanto.
+     */
+    private MetodosPlugin resolver(EjecutorPlugin ejecutor) throws ClassNotFoundException {
+        MetodosPlugin resueltos = metodos;
+        if (resueltos != null) {
+            return resueltos;
+        }
+        synchronized (this) {
+            if (this.ejecutor == null) {
+                throw new IllegalStateException("el plugin fue descargado");
+            }
+            if (metodos == null) {
+                Class<?> clase = ejecutor.getClassLoader().loadClass(nombreClase);
+                metodos = MetodosPlugin.de(clase);
+            }
+            return metodos;
+        }
+    }
+
+    /**
+     * Instancia actual del juego, creándola si todavía no hay ninguna.
+     */
+    private Object instancia(MetodosPlugin metodos, EjecutorPlugin ejecutor) throws Throwable {
+        Object instancia = instanciaActual;
+        if (instancia == null) {
+            instancia = ejecutor.ejecutar("crear instancia", metodos.invocador::crear);
+            instanciaActual = instancia;
+        }
+        return instancia;
+    }
+
+    @Override
+    public void iniciar() {
+        if (SwingUtilities.isEventDispatchThread()) {
+            // Cargar la clase y crear la instancia no necesita el hilo de eventos: se preparan aparte
+            Thread.ofVirtual().name("iniciar-" + nombreOriginal).start(this::iniciar);
+            return;
+        }
+        EjecutorPlugin ejecutor = this.ejecutor;
+        if (ejecutor == null) {
+            System.err.println("ERROR al iniciar juego " + nombreOriginal + ": el plugin fue descargado");
+            return;
+        }
+
+        try {
+            MetodosPlugin metodos = resolver(ejecutor);
+
+            // Intentar crear una nueva instancia para cada partida; si no se puede, se usa la existente
+            try {
+                Object nueva = ejecutor.ejecutar("crear instancia", metodos.invocador::crear);
+                if (nueva != null) {
+                    instanciaActual = nueva;
+                }
+            } catch (Exception ex) {
+                System.err.println("No se pudo crear una instancia nueva de " + nombreOriginal
+                        + ", se usa la existente: " + ex);
+            }
+
+            Object instancia = instancia(metodos, ejecutor);
+            // El juego arma su ventana en iniciar(): eso sí corre en el hilo de eventos
+            SwingUtilities.invokeLater(() -> arrancar(metodos, ejecutor, instancia));
+        } catch (Throwable e) {
+            informarErrorAlIniciar(e);
+        }
+    }
+
+    /**
+     * Llama a iniciar() del plugin en el hilo de eventos, vigilado: si se
+     * bloquea se informa con su pila, pero no se puede cortar.
+     */
+    private void arrancar(MetodosPlugin metodos, EjecutorPlugin ejecutor, Object instancia) {
+        try {
+            ejecutor.vigilar("iniciar", ejecutor.getLimites().getTiempoMaximoIniciarMs(), () -> {
+                metodos.invocador.iniciar(instancia);
+                return null;
+            });
+        } catch (Throwable e) {
+            informarErrorAlIniciar(e);
+        }
+    }
+
+    private void informarErrorAlIniciar(Throwable e) {
+        System.err.println("ERROR al iniciar juego " + nombreOriginal + ": " + e.getMessage());
+        e.printStackTrace();
+
+        SwingUtilities.invokeLater(() -> {
+            JOptionPane.showMessageDialog(
+                null,
+                "Error al iniciar el juego " + nombreOriginal + ":\n" + e.getMessage(),
+                "Error",
+                JOptionPane.ERROR_MESSAGE
+            );
+        });
+    }
+
+    @Override
+    public model.Stat getStats() {
+        EjecutorPlugin ejecutor = this.ejecutor;
+        if (ejecutor == null) {
+            return new model.Stat("error", "Error", 0);
+        }
+
+        try {
+            MetodosPlugin metodos = resolver(ejecutor);
+            Object instancia = instancia(metodos, ejecutor);
+            return ejecutor.ejecutar("getStats", () -> {
+                Object statExterno = metodos.invocador.getStats(instancia);
+                if (statExterno == null) {
+                    return new model.Stat("puntos", "Puntos", 0);
+                }
+                return metodos.invocador.convertirStat(statExterno);
+            });
+        } catch (Throwable e) {
+            System.err.println("Error al obtener stats de " + nombreOriginal + ": " + e.getMessage());
+            return new model.Stat("error", "Error", 0);
+        }
+    }
+
+    @Override
+    public void setGameListener(model.IGameListener listener) {
+        EjecutorPlugin ejecutor = this.ejecutor;
+        if (ejecutor == null) {
+            System.err.println("ERROR al configurar listener para " + nombreOriginal + ": el plugin fue descargado");
+            return;
+        }
+
+        try {
+            MetodosPlugin metodos = resolver(ejecutor);
+            Object listenerPlugin = crearListener(metodos, listener);
+            Object instancia = instancia(metodos, ejecutor);
+            ejecutor.vigilar("setGameListener", () -> {
+                metodos.invocador.setGameListener(instancia, listenerPlugin);
+                return null;
+            });
+        } catch (Throwable e) {
+            System.err.println("ERROR al configurar listener para " + nombreOriginal + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Crea una instancia de la interfaz de listener del plugin que convierte
+     * su Stat y avisa a {@code listener}.
+     */
+    private Object crearListener(MetodosPlugin metodos, model.IGameListener listener) {
+        if (metodos.listenerFuncional) {
+            // (Object)void: notificar(listener, stat), con los errores registrados
+            MethodHandle destino = MethodHandles.insertArguments(NOTIFICAR, 0, this, listener);
+            destino = MethodHandles.catchException(destino, Throwable.class, ERROR_LISTENER);
+            try {
+                return MethodHandleProxies.asInterfaceInstance(metodos.tipoListener, destino);
+            } catch (IllegalArgumentException e) {
+                // Interfaz no pública u otra restricción: se usa el proxy genérico
+            }
+        }
+
+        return java.lang.reflect.Proxy.newProxyInstance(
+            metodos.tipoListener.getClassLoader(),
+            new Class<?>[]{metodos.tipoListener},
+            (proxy, method, args) -> {
+                if (method.getName().equals("onGameFinished") && args != null && args.length > 0) {
+                    try {
+                        notificar(listener, args[0]);
+                    } catch (Throwable e) {
+                        errorListener(e, args[0]);
+                    }
+                }
+                return null;
+            }
+        );
+    }
+
+    /**
+     * Convierte el Stat que envía el plugin al terminar una partida y avisa al
+     * listener, en el mismo hilo: el conversor es propio y los getters del Stat
+     * del plugin son triviales.
+     */
+    private void notificar(model.IGameListener listener, Object statExterno) throws Throwable {
+        MetodosPlugin metodos = this.metodos;
+        if (metodos == null || ejecutor == null) {
+            System.err.println("Fin de partida ignorado: el plugin " + nombreOriginal + " fue descargado");
+            return;
+        }
+        listener.onGameFinished(metodos.invocador.convertirStat(statExterno));
+    }
+
+    private static void errorListener(Throwable e, Object statExterno) {
+        System.err.println("ERROR en listener proxy: " + e.getMessage());
+        e.printStackTrace();
+    }
+
+    /**
+     * Suelta las referencias a la instancia, los métodos y el ejecutor del
+     * plugin. Después de esto el adaptador ya no puede usarse.
+     */
+    synchronized void liberar() {
+        instanciaActual = null;
+        metodos = null;
+        ejecutor = null;
+    }
+
+    /**
+     * Nombre de la clase del juego, usado como nombre visible.
+     */
+    String getNombreOriginal() {
+        return nombreOriginal;
+    }
+
+    /**
+     * Nombre completo de la clase del juego en el JAR.
+     */
+    String getNombreClase() {
+        return nombreClase;
+    }
+
+    @Override
+    public String toString() {
+        return nombreOriginal;
+    }
+}
@@ -0,0 +1,45 @@
+package core;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * ClassLoader de un JAR de plugins. Anota las clases que define mientras
+ * se carga el JAR, para el {@link PerfilJar}; después deja de anotarlas.
+ */
+final class CargadorPlugin extends URLClassLoader {
+    static {
+        // Las clases candidatas se cargan en paralelo
+        registerAsParallelCapable();
+    }
+
+    private final Queue<String> definidas = new ConcurrentLinkedQueue<>();
+    private volatile boolean anotando = true;
+
+    CargadorPlugin(URL[] urls, ClassLoader padre) {
+        super(urls, padre);
+    }
+
+    @Override
+    protected Class<?> findClass(String nombre) throws ClassNotFoundException {
+        Class<?> clase = super.findClass(nombre);
+        if (anotando) {
+            definidas.add(nombre);
+        }
+        return clase;
+    }
+
+    /**
+     * Deja de anotar y devuelve las clases definidas hasta ahora.
+     */
+    List<String> terminarAnotacion() {
+        anotando = false;
+        List<String> clases = new ArrayList<>(definidas);
+        definidas.clear();
+        return clases;
+    }
+}
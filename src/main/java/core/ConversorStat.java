@@ -0,0 +1,182 @@
+package core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Convierte el Stat propio de un plugin en un {@link model.Stat}.
+ *
+ * Por cada clase Stat externa se arma una única vez un {@link MethodHandle}
+ * de tipo {@code (Object)model.Stat} que llama a getClave, getNombre y
+ * getValor y construye el resultado. El valor se lleva a int según el tipo
+ * que declara getValor, sin envolverlo:
+ * <ul>
+ *   <li>int, short, byte, char: tal cual.</li>
+ *   <li>long, float, double: saturado al rango de int.</li>
+ *   <li>Integer, Long y cualquier otro Number: igual que su primitivo; null es 0.</li>
+ *   <li>String: el número que contiene, saturado; 0 si no es un número.</li>
+ *   <li>Otro tipo: según la clase real del valor; 0 si no es número ni texto.</li>
+ * </ul>
+ * Los conversores se guardan en un {@link ClassValue} sobre la clase del
+ * plugin y se descargan con ella. Lo comparten el adaptador, al leer
+ * getStats(), y el listener, al recibir onGameFinished.
+ */
+final class ConversorStat {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandles.Lookup PUBLICO = MethodHandles.publicLookup();
+    private static final MethodType TIPO_TEXTO = MethodType.methodType(String.class, Object.class);
+    private static final MethodType TIPO_ENTERO = MethodType.methodType(int.class, Object.class);
+    private static final MethodType TIPO_CONVERTIR = MethodType.methodType(model.Stat.class, Object.class);
+
+    private static final MethodHandle CONSTRUCTOR_STAT;
+    private static final MethodHandle DESDE_LARGO;
+    private static final MethodHandle DESDE_DECIMAL;
+    private static final MethodHandle DESDE_NUMERO;
+    private static final MethodHandle DESDE_TEXTO;
+    private static final MethodHandle DESDE_OBJETO;
+
+    static {
+        try {
+            CONSTRUCTOR_STAT = LOOKUP.findConstructor(model.Stat.class,
+                    MethodType.methodType(void.class, String.class, String.class, int.class));
+            DESDE_LARGO = LOOKUP.findStatic(ConversorStat.class, "desdeLargo", MethodType.methodType(int.class, long.class));
+            DESDE_DECIMAL = LOOKUP.findStatic(ConversorStat.class, "desdeDecimal", MethodType.methodType(int.class, double.class));
+            DESDE_NUMERO = LOOKUP.findStatic(ConversorStat.class, "desdeNumero", MethodType.methodType(int.class, Number.class));
+            DESDE_TEXTO = LOOKUP.findStatic(ConversorStat.class, "desdeTexto", MethodType.methodType(int.class, String.class));
+            DESDE_OBJETO = LOOKUP.findStatic(ConversorStat.class, "aEntero", MethodType.methodType(int.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final ClassValue<ConversorStat> POR_CLASE = new ClassValue<ConversorStat>() {
+        @Override
+        protected ConversorStat computeValue(Class<?> clase) {
+            try {
+                return new ConversorStat(clase);
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                // Accesores que faltan, no son públicos o no se pueden enlazar: se guarda
+                // igual un conversor para no repetir el intento con cada Stat de esta clase
+                return new ConversorStat(clase, e);
+            }
+        }
+    };
+
+    /** Tipo (Object)model.Stat. */
+    final MethodHandle convertir;
+    /** false si la clase no tiene accesores utilizables y se devuelve siempre el Stat de error. */
+    final boolean valido;
+    /** Por qué no es válido; se informa la primera vez que se convierte un Stat de esa clase. */
+    private final String motivo;
+    private final AtomicBoolean avisado = new AtomicBoolean();
+
+    private ConversorStat(Class<?> clase) throws ReflectiveOperationException {
+        MethodHandle getClave = PUBLICO.unreflect(clase.getMethod("getClave")).asType(TIPO_TEXTO);
+        MethodHandle getNombre = PUBLICO.unreflect(clase.getMethod("getNombre")).asType(TIPO_TEXTO);
+        MethodHandle getValor = valorEntero(PUBLICO.unreflect(clase.getMethod("getValor")));
+
+        // (Object, Object, Object)Stat -> (Object)Stat: los tres accesores reciben el mismo Stat externo
+        MethodHandle armado = MethodHandles.filterArguments(CONSTRUCTOR_STAT, 0, getClave, getNombre, getValor);
+        this.convertir = MethodHandles.permuteArguments(armado, TIPO_CONVERTIR, 0, 0, 0);
+        this.valido = true;
+        this.motivo = null;
+    }
+
+    /**
+     * Conversor de reserva: ignora el Stat externo y crea un Stat "error" con valor 0.
+     */
+    private ConversorStat(Class<?> clase, Throwable causa) {
+        MethodHandle error = MethodHandles.insertArguments(CONSTRUCTOR_STAT, 0, "error", "Error", 0);
+        this.convertir = MethodHandles.dropArguments(error, 0, Object.class);
+        this.valido = false;
+        this.motivo = "No se puede convertir el Stat " + clase.getName() + ", se registrará como error: " + causa;
+    }
+
+    /**
+     * Adapta getValor a {@code (Object)int} según el tipo que devuelve.
+     */
+    private static MethodHandle valorEntero(MethodHandle getValor) {
+        Class<?> tipo = getValor.type().returnType();
+        MethodHandle filtro;
+        if (tipo == int.class || tipo == short.class || tipo == byte.class || tipo == char.class) {
+            return getValor.asType(TIPO_ENTERO);
+        } else if (tipo == long.class) {
+            filtro = DESDE_LARGO;
+        } else if (tipo == float.class || tipo == double.class) {
+            filtro = DESDE_DECIMAL;
+        } else if (Number.class.isAssignableFrom(tipo)) {
+            filtro = DESDE_NUMERO;
+        } else if (tipo == String.class) {
+            filtro = DESDE_TEXTO;
+        } else {
+            filtro = DESDE_OBJETO;
+        }
+        MethodHandle adaptado = getValor.asType(getValor.type().changeReturnType(filtro.type().parameterType(0)));
+        return MethodHandles.filterReturnValue(adaptado, filtro).asType(TIPO_ENTERO);
+    }
+
+    /**
+     * Conversor de una clase Stat externa, o null si no tiene getClave/getNombre/getValor
+     * utilizables (en ese caso se convierte cada Stat según su clase real).
+     */
+    static ConversorStat de(Class<?> clase) {
+        ConversorStat conversor = POR_CLASE.get(clase);
+        return conversor.valido ? conversor : null;
+    }
+
+    /**
+     * Convierte un Stat externo con el conversor de su clase real. Se usa
+     * cuando el tipo que declara getStats() no tiene los accesores. Si
+     * tampoco la clase real los tiene, el resultado es el Stat "error".
+     */
+    static model.Stat convertirStat(Object statExterno) throws Throwable {
+        ConversorStat conversor = POR_CLASE.get(statExterno.getClass());
+        if (!conversor.valido && conversor.avisado.compareAndSet(false, true)) {
+            System.err.println(conversor.motivo);
+        }
+        return (model.Stat) conversor.convertir.invokeExact(statExterno);
+    }
+
+    static int desdeLargo(long valor) {
+        return valor > Integer.MAX_VALUE ? Integer.MAX_VALUE
+                : valor < Integer.MIN_VALUE ? Integer.MIN_VALUE
+                : (int) valor;
+    }
+
+    static int desdeDecimal(double valor) {
+        // La conversión de double a int ya satura y lleva NaN a 0
+        return (int) valor;
+    }
+
+    static int desdeNumero(Number valor) {
+        if (valor == null) return 0;
+        if (valor instanceof Double || valor instanceof Float) {
+            return desdeDecimal(valor.doubleValue());
+        }
+        return desdeLargo(valor.longValue());
+    }
+
+    static int desdeTexto(String valor) {
+        if (valor == null) return 0;
+        try {
+            return desdeLargo(Long.parseLong(valor.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Valor de tipo desconocido: número o texto según su clase real, 0 en otro caso.
+     */
+    static int aEntero(Object valor) {
+        if (valor instanceof Number) {
+            return desdeNumero((Number) valor);
+        }
+        if (valor instanceof String) {
+            return desdeTexto((String) valor);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,86 @@
+package core;
+
+import model.IGameFunction;
+
+import java.util.function.Supplier;
+
+/**
+ * Entrada del catálogo de juegos del {@link GameManager}: el nombre visible,
+ * de dónde viene y cómo crearlo. El juego no se crea al armar el catálogo
+ * sino la primera vez que se pide con {@link #obtener()}, normalmente al
+ * lanzarlo; a partir de ahí se reutiliza la misma instancia.
+ */
+public final class DescriptorJuego {
+    /**
+     * Procedencia de un juego.
+     */
+    public enum Origen {
+        /** Incluido en la aplicación. */
+        INTERNO,
+        /** Cargado desde un JAR del directorio de plugins. */
+        PLUGIN
+    }
+
+    private final String nombre;
+    private final Origen origen;
+    private final String fuente;
+    private final Supplier<? extends IGameFunction> fabrica;
+    private volatile IGameFunction juego;
+
+    /**
+     * @param fuente  Descripción de la procedencia, por ejemplo el nombre del JAR.
+     * @param fabrica Crea el juego; se llama como mucho una vez.
+     */
+    DescriptorJuego(String nombre, Origen origen, String fuente, Supplier<? extends IGameFunction> fabrica) {
+        this.nombre = nombre;
+        this.origen = origen;
+        this.fuente = fuente;
+        this.fabrica = fabrica;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public Origen getOrigen() {
+        return origen;
+    }
+
+    public boolean isExterno() {
+        return origen == Origen.PLUGIN;
+    }
+
+    public String getFuente() {
+        return fuente;
+    }
+
+    /**
+     * Devuelve el juego, creándolo si es la primera vez.
+     */
+    public IGameFunction obtener() {
+        IGameFunction creado = juego;
+        if (creado == null) {
+            synchronized (this) {
+                creado = juego;
+                if (creado == null) {
+                    creado = fabrica.get();
+                    juego = creado;
+                    System.out.println("Juego creado al usarlo por primera vez: " + nombre);
+                }
+            }
+        }
+        return creado;
+    }
+
+    /**
+     * true si el juego ya se creó.
+     */
+    public boolean isCreado() {
+        return juego != null;
+    }
+
+    @Override
+    public String toString() {
+        return nombre + " (" + fuente + ")";
+    }
+}
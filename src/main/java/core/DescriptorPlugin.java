@@ -0,0 +1,75 @@
+package core;
+
+import model.IGameFunction;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.time.Instant;
+
+/**
+ * Datos de un juego cargado desde un JAR de plugins.
+ * Es inmutable; el ClassLoader se guarda con una referencia débil para que
+ * un descriptor retenido no impida descargar el plugin.
+ */
+public final class DescriptorPlugin {
+    private final IGameFunction juego;
+    private final String nombre;
+    private final String nombreClase;
+    private final File archivoJar;
+    private final WeakReference<ClassLoader> classLoader;
+    private final Instant cargadoEn;
+    private final String version;
+
+    DescriptorPlugin(IGameFunction juego, String nombre, String nombreClase, File archivoJar,
+                     ClassLoader classLoader, Instant cargadoEn, String version) {
+        this.juego = juego;
+        this.nombre = nombre;
+        this.nombreClase = nombreClase;
+        this.archivoJar = archivoJar;
+        this.classLoader = new WeakReference<>(classLoader);
+        this.cargadoEn = cargadoEn;
+        this.version = version;
+    }
+
+    public IGameFunction getJuego() {
+        return juego;
+    }
+
+    /**
+     * Nombre visible del juego.
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getNombreClase() {
+        return nombreClase;
+    }
+
+    public File getArchivoJar() {
+        return archivoJar;
+    }
+
+    /**
+     * ClassLoader del JAR, o null si ya se descargó y liberó.
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader.get();
+    }
+
+    public Instant getCargadoEn() {
+        return cargadoEn;
+    }
+
+    /**
+     * Atributo {@code Implementation-Version} del manifiesto del JAR, o null si no lo tiene.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return nombre + " (" + archivoJar.getName() + (version != null ? " " + version : "") + ")";
+    }
+}
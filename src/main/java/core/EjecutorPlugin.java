@@ -0,0 +1,238 @@
+package core;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecuta las llamadas a los juegos de un JAR, cada una en su propio hilo
+ * virtual y con un tiempo máximo. El llamador espera como mucho ese tiempo,
+ * aunque el plugin se bloquee.
+ *
+ * Las llamadas que tocan la interfaz ({@code iniciar()}, el listener) no
+ * pueden salir del hilo de eventos de Swing: esas se hacen en el hilo actual
+ * con {@link #vigilar}, que no las corta pero avisa si tardan demasiado.
+ *
+ * Tras varios fallos o llamadas lentas seguidas, el JAR queda en cuarentena:
+ * sus llamadas fallan de inmediato hasta que se recargue, aunque el archivo
+ * no haya cambiado (ver {@link #reactivar()}). Cada ejecutor lleva
+ * sus propios contadores de latencia para ver qué JAR afecta la respuesta.
+ */
+final class EjecutorPlugin implements AutoCloseable {
+    /**
+     * Código del plugin a ejecutar.
+     */
+    interface Llamada<T> {
+        T ejecutar() throws Throwable;
+    }
+
+    /** Avisa de las llamadas vigiladas que siguen en curso pasado su tiempo. */
+    private static final ScheduledExecutorService VIGILANTE = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "plugins-vigilante");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final String nombreJar;
+    private final ClassLoader classLoader;
+    private final LimitesEjecucion limites;
+    private final ExecutorService hilos;
+
+    private final LongAdder llamadas = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder lentas = new LongAdder();
+    private final AtomicLong nanosTotales = new AtomicLong();
+    private final LongAccumulator nanosMaximo = new LongAccumulator(Math::max, 0);
+    private final AtomicInteger fallosSeguidos = new AtomicInteger();
+    private volatile boolean enCuarentena;
+
+    EjecutorPlugin(String nombreJar, ClassLoader classLoader, LimitesEjecucion limites) {
+        this.nombreJar = nombreJar;
+        this.classLoader = classLoader;
+        this.limites = limites;
+        this.hilos = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("plugin-" + nombreJar + "-", 0).factory());
+    }
+
+    /**
+     * Ejecuta una llamada al plugin con el ClassLoader del JAR como contexto.
+     *
+     * @param operacion      Nombre para los mensajes y contadores.
+     * @param tiempoMaximoMs Tiempo tras el cual se deja de esperar y se interrumpe la llamada.
+     * @return Lo que devuelve la llamada.
+     * @throws TimeoutException      Si no terminó a tiempo.
+     * @throws IllegalStateException Si el JAR está en cuarentena o ya se descargó.
+     * @throws Throwable             Lo que lance el plugin.
+     */
+    <T> T ejecutar(String operacion, long tiempoMaximoMs, Llamada<T> llamada) throws Throwable {
+        if (enCuarentena) {
+            throw new IllegalStateException(nombreJar + " está en cuarentena por fallos repetidos");
+        }
+        Future<T> futuro;
+        try {
+            futuro = hilos.submit(() -> {
+                Thread.currentThread().setContextClassLoader(classLoader);
+                try {
+                    return llamada.ejecutar();
+                } catch (Exception | Error e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw new ExecutionException(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException(nombreJar + " ya fue descargado");
+        }
+
+        long inicio = System.nanoTime();
+        boolean exito = false;
+        try {
+            T resultado = futuro.get(tiempoMaximoMs, TimeUnit.MILLISECONDS);
+            exito = true;
+            return resultado;
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new TimeoutException(nombreJar + ": " + operacion + " no respondió en " + tiempoMaximoMs + " ms");
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            throw causa instanceof ExecutionException && causa.getCause() != null ? causa.getCause() : causa;
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } finally {
+            registrar(operacion, System.nanoTime() - inicio, exito, true);
+        }
+    }
+
+    /**
+     * Ejecuta una llamada con el tiempo máximo general de los límites.
+     */
+    <T> T ejecutar(String operacion, Llamada<T> llamada) throws Throwable {
+        return ejecutar(operacion, limites.getTiempoMaximoMs(), llamada);
+    }
+
+    /**
+     * Ejecuta una llamada al plugin en el hilo actual, con el ClassLoader del
+     * JAR como contexto. No se interrumpe: si pasado {@code avisoMs} sigue en
+     * curso, se informa junto con la pila del hilo bloqueado.
+     *
+     * Solo los fallos cuentan para la cuarentena; la lentitud se registra y se
+     * informa, pero una llamada que abre una ventana o un diálogo puede tardar.
+     *
+     * @throws IllegalStateException Si el JAR está en cuarentena.
+     * @throws Throwable             Lo que lance el plugin.
+     */
+    <T> T vigilar(String operacion, long avisoMs, Llamada<T> llamada) throws Throwable {
+        if (enCuarentena) {
+            throw new IllegalStateException(nombreJar + " está en cuarentena por fallos repetidos");
+        }
+        Thread hilo = Thread.currentThread();
+        ScheduledFuture<?> aviso = VIGILANTE.schedule(() -> avisarBloqueo(operacion, avisoMs, hilo),
+                avisoMs, TimeUnit.MILLISECONDS);
+        ClassLoader anterior = hilo.getContextClassLoader();
+        hilo.setContextClassLoader(classLoader);
+        long inicio = System.nanoTime();
+        boolean exito = false;
+        try {
+            T resultado = llamada.ejecutar();
+            exito = true;
+            return resultado;
+        } finally {
+            hilo.setContextClassLoader(anterior);
+            aviso.cancel(false);
+            registrar(operacion, System.nanoTime() - inicio, exito, false);
+        }
+    }
+
+    /**
+     * Vigila una llamada con el tiempo máximo general de los límites.
+     */
+    <T> T vigilar(String operacion, Llamada<T> llamada) throws Throwable {
+        return vigilar(operacion, limites.getTiempoMaximoMs(), llamada);
+    }
+
+    private void avisarBloqueo(String operacion, long avisoMs, Thread hilo) {
+        System.err.println("BLOQUEADO: " + nombreJar + " lleva más de " + avisoMs + " ms en " + operacion
+                + " en el hilo " + hilo.getName());
+        StackTraceElement[] pila = hilo.getStackTrace();
+        for (int i = 0; i < Math.min(pila.length, 15); i++) {
+            System.err.println("\tat " + pila[i]);
+        }
+    }
+
+    /**
+     * @param penalizarLentitud Si una llamada lenta cuenta como fallo para la cuarentena.
+     */
+    private void registrar(String operacion, long nanos, boolean exito, boolean penalizarLentitud) {
+        llamadas.increment();
+        nanosTotales.addAndGet(nanos);
+        nanosMaximo.accumulate(nanos);
+
+        long milis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        boolean lenta = milis >= limites.getUmbralLentoMs();
+        if (lenta) {
+            lentas.increment();
+            System.err.println("LENTO: " + nombreJar + " tardó " + milis + " ms en " + operacion);
+        }
+        if (!exito) {
+            fallos.increment();
+        }
+
+        if (exito && !(lenta && penalizarLentitud)) {
+            fallosSeguidos.set(0);
+        } else if (fallosSeguidos.incrementAndGet() >= limites.getFallosParaCuarentena() && !enCuarentena) {
+            enCuarentena = true;
+            System.err.println("CUARENTENA: " + nombreJar + " tras " + fallosSeguidos.get()
+                    + " llamadas fallidas o lentas seguidas; se reactivará al recargar el JAR");
+        }
+    }
+
+    boolean isEnCuarentena() {
+        return enCuarentena;
+    }
+
+    /**
+     * Saca al JAR de la cuarentena y reinicia la cuenta de fallos seguidos.
+     * Se usa al recargar a pedido un JAR que no cambió y por eso conserva su ejecutor.
+     *
+     * @return true si estaba en cuarentena.
+     */
+    boolean reactivar() {
+        fallosSeguidos.set(0);
+        boolean estaba = enCuarentena;
+        enCuarentena = false;
+        return estaba;
+    }
+
+    LimitesEjecucion getLimites() {
+        return limites;
+    }
+
+    ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    EstadisticasPlugin estadisticas() {
+        return new EstadisticasPlugin(nombreJar, llamadas.sum(), fallos.sum(), lentas.sum(),
+                nanosTotales.get(), nanosMaximo.get(), enCuarentena);
+    }
+
+    /**
+     * Rechaza llamadas nuevas e interrumpe las que sigan en curso.
+     */
+    @Override
+    public void close() {
+        hilos.shutdownNow();
+    }
+}
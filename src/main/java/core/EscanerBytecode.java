@@ -0,0 +1,173 @@
+package core;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Lee un archivo {@code .class} sin cargarlo en la JVM para decidir si la
+ * clase puede ser un juego. Recorre la tabla de constantes y la de métodos
+ * buscando los tres métodos públicos que exige un juego:
+ * {@code iniciar()}, {@code getStats()} y {@code setGameListener(x)}.
+ *
+ * Así solo se llama a {@code loadClass} para las clases que los declaran,
+ * en lugar de definir y enlazar cada clase auxiliar del JAR.
+ */
+final class EscanerBytecode {
+    private static final int MAGIA = 0xCAFEBABE;
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+
+    /**
+     * Resultado de examinar una clase.
+     */
+    enum Veredicto {
+        /** Declara los tres métodos: hay que cargarla para confirmarlo. */
+        CANDIDATA,
+        /** No puede ser un juego. */
+        DESCARTADA,
+        /** Le faltan métodos pero podría heredarlos de su superclase: hay que cargarla. */
+        INCIERTA
+    }
+
+    private EscanerBytecode() {
+    }
+
+    /**
+     * Examina los bytes de una clase.
+     *
+     * @param in Contenido del archivo .class; no se cierra.
+     * @return El veredicto; {@link Veredicto#INCIERTA} si el archivo no se pudo interpretar.
+     */
+    static Veredicto examinar(InputStream in) throws IOException {
+        DataInputStream datos = new DataInputStream(in);
+        if (datos.readInt() != MAGIA) {
+            return Veredicto.INCIERTA;
+        }
+        datos.readUnsignedShort(); // versión menor
+        datos.readUnsignedShort(); // versión mayor
+
+        int cantidadConstantes = datos.readUnsignedShort();
+        String[] textos = new String[cantidadConstantes];
+        int[] clases = new int[cantidadConstantes];
+        for (int i = 1; i < cantidadConstantes; i++) {
+            int etiqueta = datos.readUnsignedByte();
+            switch (etiqueta) {
+                case 1: // Utf8
+                    textos[i] = datos.readUTF();
+                    break;
+                case 7: // Class
+                    clases[i] = datos.readUnsignedShort();
+                    break;
+                case 8: case 16: case 19: case 20: // String, MethodType, Module, Package
+                    saltar(datos, 2);
+                    break;
+                case 15: // MethodHandle
+                    saltar(datos, 3);
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    saltar(datos, 4);
+                    break;
+                case 5: case 6: // Long y Double ocupan dos entradas
+                    saltar(datos, 8);
+                    i++;
+                    break;
+                default:
+                    return Veredicto.INCIERTA;
+            }
+        }
+
+        int acceso = datos.readUnsignedShort();
+        if ((acceso & (ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION | ACC_ENUM)) != 0) {
+            return Veredicto.DESCARTADA;
+        }
+        datos.readUnsignedShort(); // this_class
+        int superclase = datos.readUnsignedShort();
+        saltar(datos, 2 * datos.readUnsignedShort()); // interfaces
+
+        saltarMiembros(datos); // campos
+
+        boolean tieneIniciar = false;
+        boolean tieneGetStats = false;
+        boolean tieneSetListener = false;
+        int cantidadMetodos = datos.readUnsignedShort();
+        for (int i = 0; i < cantidadMetodos; i++) {
+            int accesoMetodo = datos.readUnsignedShort();
+            String nombre = textos[datos.readUnsignedShort()];
+            String descriptor = textos[datos.readUnsignedShort()];
+            saltarAtributos(datos);
+            if ((accesoMetodo & ACC_PUBLIC) == 0 || nombre == null || descriptor == null) continue;
+
+            if (nombre.equals("iniciar") && contarParametros(descriptor) == 0) {
+                tieneIniciar = true;
+            } else if (nombre.equals("getStats") && contarParametros(descriptor) == 0) {
+                tieneGetStats = true;
+            } else if (nombre.equals("setGameListener") && contarParametros(descriptor) == 1) {
+                tieneSetListener = true;
+            }
+        }
+
+        if (tieneIniciar && tieneGetStats && tieneSetListener) {
+            return Veredicto.CANDIDATA;
+        }
+        String nombreSuperclase = superclase == 0 ? null : textos[clases[superclase]];
+        return nombreSuperclase == null || nombreSuperclase.equals("java/lang/Object")
+                ? Veredicto.DESCARTADA
+                : Veredicto.INCIERTA;
+    }
+
+    private static void saltarMiembros(DataInputStream datos) throws IOException {
+        int cantidad = datos.readUnsignedShort();
+        for (int i = 0; i < cantidad; i++) {
+            saltar(datos, 6); // acceso, nombre, descriptor
+            saltarAtributos(datos);
+        }
+    }
+
+    private static void saltarAtributos(DataInputStream datos) throws IOException {
+        int cantidad = datos.readUnsignedShort();
+        for (int i = 0; i < cantidad; i++) {
+            saltar(datos, 2);
+            saltar(datos, datos.readInt());
+        }
+    }
+
+    /**
+     * Salta bytes del flujo; los flujos comprimidos de un JAR pueden saltar menos de lo pedido.
+     */
+    private static void saltar(DataInputStream datos, int cantidad) throws IOException {
+        while (cantidad > 0) {
+            int saltados = datos.skipBytes(cantidad);
+            if (saltados <= 0) {
+                datos.readByte(); // lanza EOFException al final del archivo
+                saltados = 1;
+            }
+            cantidad -= saltados;
+        }
+    }
+
+    /**
+     * Cuenta los parámetros de un descriptor de método como {@code (ILjava/lang/String;[J)V}.
+     */
+    static int contarParametros(String descriptor) {
+        int cantidad = 0;
+        int i = 1;
+        while (i < descriptor.length() && descriptor.charAt(i) != ')') {
+            char c = descriptor.charAt(i);
+            if (c == '[') {
+                i++;
+                continue;
+            }
+            if (c == 'L') {
+                i = descriptor.indexOf(';', i);
+                if (i < 0) return -1;
+            }
+            cantidad++;
+            i++;
+        }
+        return cantidad;
+    }
+}
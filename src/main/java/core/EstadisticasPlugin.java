@@ -0,0 +1,73 @@
+package core;
+
+/**
+ * Contadores de las llamadas a los juegos de un JAR, tomados en un instante.
+ */
+public final class EstadisticasPlugin {
+    private final String nombreJar;
+    private final long llamadas;
+    private final long fallos;
+    private final long lentas;
+    private final long nanosTotales;
+    private final long nanosMaximo;
+    private final boolean enCuarentena;
+
+    EstadisticasPlugin(String nombreJar, long llamadas, long fallos, long lentas,
+                       long nanosTotales, long nanosMaximo, boolean enCuarentena) {
+        this.nombreJar = nombreJar;
+        this.llamadas = llamadas;
+        this.fallos = fallos;
+        this.lentas = lentas;
+        this.nanosTotales = nanosTotales;
+        this.nanosMaximo = nanosMaximo;
+        this.enCuarentena = enCuarentena;
+    }
+
+    public String getNombreJar() {
+        return nombreJar;
+    }
+
+    public long getLlamadas() {
+        return llamadas;
+    }
+
+    /**
+     * Llamadas que lanzaron una excepción o superaron el tiempo máximo.
+     */
+    public long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * Llamadas que superaron el umbral de lentitud, hayan terminado o no.
+     */
+    public long getLentas() {
+        return lentas;
+    }
+
+    /**
+     * Tiempo total que los llamadores esperaron a este plugin.
+     */
+    public double getTotalMs() {
+        return nanosTotales / 1_000_000.0;
+    }
+
+    public double getPromedioMs() {
+        return llamadas == 0 ? 0 : nanosTotales / 1_000_000.0 / llamadas;
+    }
+
+    public double getMaximoMs() {
+        return nanosMaximo / 1_000_000.0;
+    }
+
+    public boolean isEnCuarentena() {
+        return enCuarentena;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d llamada(s), %d fallo(s), %d lenta(s), promedio %.1f ms, máximo %.1f ms%s",
+                nombreJar, llamadas, fallos, lentas, getPromedioMs(), getMaximoMs(),
+                enCuarentena ? " [EN CUARENTENA]" : "");
+    }
+}
@@ -0,0 +1,60 @@
+package core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de JFR con el {@link PerfilClase} de una clase probada al cargar un JAR.
+ *
+ * Igual que {@link EventoCargaJar}, solo se emite si JFR ya está iniciado
+ * ({@code -XX:StartFlightRecording} o {@code jcmd <pid> JFR.start}).
+ */
+@Name("gamemanager.plugins.CargaClase")
+@Label("Prueba de clase de plugin")
+@Category({"GameManager", "Plugins"})
+@Description("Examen, carga y prueba de una clase candidata de un JAR de plugins")
+final class EventoCargaClase extends jdk.jfr.Event {
+    @Label("JAR")
+    String jar;
+
+    @Label("Clase")
+    String clase;
+
+    @Label("Resultado")
+    String resultado;
+
+    @Label("Examinar bytecode")
+    @Timespan(Timespan.NANOSECONDS)
+    long examinar;
+
+    @Label("Cargar")
+    @Timespan(Timespan.NANOSECONDS)
+    long cargar;
+
+    @Label("Probar")
+    @Timespan(Timespan.NANOSECONDS)
+    long probar;
+
+    @Label("Instanciar")
+    @Timespan(Timespan.NANOSECONDS)
+    long instanciar;
+
+    @Label("Bytes asignados")
+    @DataAmount(DataAmount.BYTES)
+    long bytesAsignados;
+
+    void completar(String nombreJar, PerfilClase perfil) {
+        jar = nombreJar;
+        clase = perfil.getNombreClase();
+        resultado = perfil.resultado.name();
+        examinar = perfil.nanosExaminar;
+        cargar = perfil.nanosCargar;
+        probar = perfil.nanosProbar;
+        instanciar = perfil.nanosInstanciar;
+        bytesAsignados = perfil.bytesAsignados;
+    }
+}
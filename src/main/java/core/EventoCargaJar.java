@@ -0,0 +1,82 @@
+package core;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de JFR con el {@link PerfilJar} de un JAR cargado. Su duración es
+ * la de la carga completa.
+ *
+ * Solo se emite si JFR ya está iniciado al cargar el JAR: lanzando la
+ * aplicación con {@code -XX:StartFlightRecording}, o con
+ * {@code jcmd <pid> JFR.start} antes de "Recargar Plugins". Sin JFR el
+ * evento ni se crea, porque cargar su clase inicializa JFR y eso sumaba
+ * unos 300 ms a la primera carga de plugins.
+ */
+@Name("gamemanager.plugins.CargaJar")
+@Label("Carga de JAR de plugins")
+@Category({"GameManager", "Plugins"})
+@Description("Carga de un JAR del directorio de plugins")
+final class EventoCargaJar extends jdk.jfr.Event {
+    @Label("JAR")
+    String jar;
+
+    @Label("Desde índice")
+    boolean desdeIndice;
+
+    @Label("Abrir")
+    @Timespan(Timespan.NANOSECONDS)
+    long abrir;
+
+    @Label("Enumerar")
+    @Timespan(Timespan.NANOSECONDS)
+    long enumerar;
+
+    @Label("Cargar clases")
+    @Timespan(Timespan.NANOSECONDS)
+    long cargar;
+
+    @Label("Probar clases")
+    @Timespan(Timespan.NANOSECONDS)
+    long probar;
+
+    @Label("Instanciar")
+    @Timespan(Timespan.NANOSECONDS)
+    long instanciar;
+
+    @Label("Bytes leídos")
+    @DataAmount(DataAmount.BYTES)
+    long bytesLeidos;
+
+    @Label("Bytes asignados")
+    @DataAmount(DataAmount.BYTES)
+    long bytesAsignados;
+
+    @Label("Clases definidas")
+    int clasesDefinidas;
+
+    @Label("Clases rechazadas")
+    int clasesRechazadas;
+
+    @Label("Juegos")
+    int juegos;
+
+    void completar(PerfilJar perfil) {
+        jar = perfil.getNombreJar();
+        desdeIndice = perfil.desdeIndice;
+        abrir = perfil.nanosAbrir;
+        enumerar = perfil.nanosEnumerar;
+        cargar = perfil.nanosCargar;
+        probar = perfil.nanosProbar;
+        instanciar = perfil.nanosInstanciar;
+        bytesLeidos = perfil.bytesLeidos;
+        bytesAsignados = perfil.bytesAsignados;
+        clasesDefinidas = perfil.clasesDefinidas;
+        clasesRechazadas = perfil.clasesRechazadas;
+        juegos = perfil.juegos;
+    }
+}
@@ -16,27 +16,49 @@ import games.dice.Dice;
 import games.tictactoe.Tictactoe;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 /**
  * Gestor central del sistema de juegos.
  * Coordina la carga de juegos internos y externos, y proporciona acceso
  * unificado a todos los juegos disponibles.
  * Implementa el patrón Singleton.
+ *
+ * El directorio de plugins se vigila en segundo plano: al agregar, reemplazar
+ * o borrar un JAR solo se cargan o quitan sus juegos, y los
+ * {@link ObservadorJuegos} registrados reciben cada cambio.
+ *
+ * El catálogo guarda un {@link DescriptorJuego} por juego, sin crearlo: los
+ * juegos internos se crean al lanzarlos por primera vez, y los de plugins
+ * cargados desde el índice no cargan su clase hasta entonces.
+ *
+ * Los plugins se cargan en segundo plano: el catálogo empieza solo con los
+ * juegos internos, y los de cada JAR se agregan, con su aviso a los
+ * observadores, en cuanto ese JAR termina de cargarse.
  */
 public class GameManager {
     private static GameManager instance;
-    private List<IGameFunction> juegosDisponibles;
+    private List<DescriptorJuego> juegosDisponibles;
+    /** Descriptor de cada juego de plugin, por identidad del juego. Se modifica con el bloqueo tomado. */
+    private final Map<IGameFunction, DescriptorJuego> descriptoresPlugins = new IdentityHashMap<>();
     private PluginLoader pluginLoader;
+    private VigilantePlugins vigilante;
+    private final List<ObservadorJuegos> observadores = new CopyOnWriteArrayList<>();
+    private volatile boolean cargandoPlugins;
 
     /**
      * Constructor privado para patrón Singleton.
      */
     private GameManager() {
-        juegosDisponibles = new ArrayList<>();
+        juegosDisponibles = new CopyOnWriteArrayList<>();
         cargarJuegosInternos();
-        cargarJuegosExternos();
+        iniciarCargaPlugins();
     }
 
     /**
@@ -44,7 +66,7 @@ public class GameManager {
      *
      * @return Instancia del GameManager.
      */
-    public static GameManager getInstance() {
+    public static synchronized GameManager getInstance() {
         if (instance == null) {
             instance = new GameManager();
         }
@@ -52,60 +74,199 @@ public class GameManager {
     }
 
     /**
-     * Carga los juegos internos del sistema (incluidos en el proyecto).
+     * Registra los juegos internos del sistema (incluidos en el proyecto).
+     * No se crean hasta que se lanzan.
      */
     private void cargarJuegosInternos() {
-        juegosDisponibles.add(ClickerGame.getInstance());
-        juegosDisponibles.add(Dice.getInstance());
-        juegosDisponibles.add(Tictactoe.getInstance());
-        System.out.println("Juegos internos cargados: " + juegosDisponibles.size());
+        juegosDisponibles.add(interno("Clicker", ClickerGame::getInstance));
+        juegosDisponibles.add(interno("Dados", Dice::getInstance));
+        juegosDisponibles.add(interno("Tres en Raya", Tictactoe::getInstance));
+        System.out.println("Juegos internos registrados: " + juegosDisponibles.size());
+    }
+
+    private static DescriptorJuego interno(String nombre, Supplier<IGameFunction> fabrica) {
+        return new DescriptorJuego(nombre, DescriptorJuego.Origen.INTERNO, "interno", fabrica);
+    }
+
+    /**
+     * Descriptor de un juego de plugin. El adaptador ya existe pero no carga
+     * la clase del juego hasta que se usa.
+     */
+    private DescriptorJuego describirPlugin(IGameFunction juego) {
+        DescriptorPlugin plugin = pluginLoader.getRegistro().buscar(juego);
+        String fuente = plugin != null ? plugin.getArchivoJar().getName() : "plugin";
+        DescriptorJuego descriptor = new DescriptorJuego(PluginLoader.getNombreOriginal(juego),
+                DescriptorJuego.Origen.PLUGIN, fuente, () -> juego);
+        descriptoresPlugins.put(juego, descriptor);
+        return descriptor;
     }
 
     /**
-     * Carga juegos externos desde archivos JAR usando el PluginLoader.
+     * Empieza a cargar los juegos externos en un hilo aparte y vuelve de
+     * inmediato. Al terminar se empieza a vigilar el directorio de plugins.
      */
-    private void cargarJuegosExternos() {
+    private void iniciarCargaPlugins() {
         File pluginsDir = new File("plugins");
         pluginLoader = new PluginLoader(pluginsDir);
-        List<IGameFunction> pluginsExternos = pluginLoader.cargarPlugins();
-        juegosDisponibles.addAll(pluginsExternos);
+        // Los JARs incluidos (JuegoMateRapida, MisJuegos) no declaran sus juegos
+        pluginLoader.setEscaneoHeuristico(true);
+
+        cargandoPlugins = true;
+        Thread hilo = new Thread(() -> {
+            try {
+                cargarJuegosExternos();
+            } finally {
+                cargandoPlugins = false;
+                for (ObservadorJuegos observador : observadores) {
+                    observador.cargaInicialTerminada();
+                }
+            }
+            iniciarVigilancia();
+        }, "plugins-carga-inicial");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Carga juegos externos desde archivos JAR usando el PluginLoader,
+     * agregando al catálogo los de cada JAR en cuanto está listo.
+     */
+    private synchronized void cargarJuegosExternos() {
+        List<IGameFunction> pluginsExternos = pluginLoader.cargarPlugins(
+                (archivoJar, juegos) -> aplicarCambios(new ArrayList<>(), juegos));
         System.out.println("Juegos externos cargados: " + pluginsExternos.size());
+        MedidorArranque.pluginsCargados(pluginsExternos.size());
+    }
+
+    /**
+     * true mientras dura la carga inicial de plugins; hasta entonces el
+     * catálogo puede no tener todos los juegos externos.
+     */
+    public boolean isCargandoPlugins() {
+        return cargandoPlugins;
+    }
+
+    /**
+     * Obtiene el catálogo de juegos disponibles (internos y externos), sin crear ninguno.
+     *
+     * @return Descriptores en el orden en que se registraron.
+     */
+    public List<DescriptorJuego> getDescriptores() {
+        return new ArrayList<>(juegosDisponibles);
     }
 
     /**
      * Obtiene la lista de todos los juegos disponibles (internos y externos).
+     * Crea los que todavía no se crearon; para listarlos, usar {@link #getDescriptores()}.
      *
      * @return Lista de juegos disponibles.
      */
     public List<IGameFunction> getJuegosDisponibles() {
-        return new ArrayList<>(juegosDisponibles);
+        List<IGameFunction> juegos = new ArrayList<>();
+        for (DescriptorJuego descriptor : juegosDisponibles) {
+            juegos.add(descriptor.obtener());
+        }
+        return juegos;
     }
 
     /**
      * Recarga los juegos externos desde el directorio de plugins.
      * Útil si se agregan nuevos JARs sin reiniciar la aplicación.
+     * Solo se procesan los JARs agregados o modificados; los demás conservan
+     * sus juegos ya cargados, y los observadores solo reciben los juegos que
+     * realmente se quitaron o agregaron.
      */
-    public void recargarPlugins() {
-        // Remover SOLO los juegos externos (no los internos)
-        juegosDisponibles.removeIf(juego -> !esJuegoInterno(juego));
-        
-        // Cargar nuevamente los plugins
+    public synchronized void recargarPlugins() {
+        List<IGameFunction> anteriores = new ArrayList<>(descriptoresPlugins.keySet());
+
         List<IGameFunction> pluginsExternos = pluginLoader.cargarPlugins();
-        juegosDisponibles.addAll(pluginsExternos);
-        
+
+        List<IGameFunction> eliminados = new ArrayList<>(anteriores);
+        eliminados.removeAll(pluginsExternos);
+        List<IGameFunction> agregados = new ArrayList<>(pluginsExternos);
+        agregados.removeAll(anteriores);
+        aplicarCambios(eliminados, agregados);
+
         System.out.println("Plugins recargados. Total de juegos: " + juegosDisponibles.size());
     }
 
-    private boolean esJuegoInterno(IGameFunction juego) {
-        String nombreClase = juego.getClass().getName();
-        // Verificar si pertenece a los paquetes internos del proyecto
-        return nombreClase.startsWith("games.clicker") || 
-            nombreClase.startsWith("games.dice") || 
-            nombreClase.startsWith("games.tictactoe");
+    /**
+     * Aplica el cambio de un único JAR avisado por la vigilancia del directorio.
+     */
+    private synchronized void recargarJar(File archivoJar) {
+        PluginLoader.CambioJar cambio = pluginLoader.recargarJar(archivoJar);
+        if (cambio.eliminados.isEmpty() && cambio.agregados.isEmpty()) return;
+        aplicarCambios(cambio.eliminados, cambio.agregados);
+        System.out.println("Plugin " + archivoJar.getName() + " actualizado: -" + cambio.eliminados.size()
+                + " +" + cambio.agregados.size() + ". Total de juegos: " + juegosDisponibles.size());
+    }
+
+    private void aplicarCambios(List<IGameFunction> eliminados, List<IGameFunction> agregados) {
+        for (IGameFunction juego : eliminados) {
+            DescriptorJuego descriptor = descriptoresPlugins.remove(juego);
+            if (descriptor == null) continue;
+            juegosDisponibles.remove(descriptor);
+            for (ObservadorJuegos observador : observadores) {
+                observador.juegoEliminado(descriptor);
+            }
+        }
+        for (IGameFunction juego : agregados) {
+            DescriptorJuego descriptor = describirPlugin(juego);
+            juegosDisponibles.add(descriptor);
+            for (ObservadorJuegos observador : observadores) {
+                observador.juegoAgregado(descriptor);
+            }
+        }
+    }
+
+    /**
+     * Registra un observador de los juegos que se agregan o quitan.
+     */
+    public void agregarObservador(ObservadorJuegos observador) {
+        observadores.add(observador);
+    }
+
+    public void quitarObservador(ObservadorJuegos observador) {
+        observadores.remove(observador);
     }
 
+    /**
+     * Empieza a vigilar el directorio de plugins, si no se está vigilando ya.
+     */
+    public synchronized void iniciarVigilancia() {
+        if (vigilante != null) return;
+        try {
+            vigilante = new VigilantePlugins(pluginLoader.getPluginsDir(), new VigilantePlugins.Destino() {
+                @Override
+                public void jarCambiado(File archivoJar) {
+                    recargarJar(archivoJar);
+                }
 
-    
+                @Override
+                public void directorioCambiado() {
+                    recargarPlugins();
+                }
+            }, VigilantePlugins.ESPERA_POR_DEFECTO_MS);
+            System.out.println("Vigilando cambios en " + pluginLoader.getPluginsDir().getPath());
+        } catch (IOException e) {
+            System.err.println("No se puede vigilar el directorio de plugins: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deja de vigilar el directorio de plugins. Los juegos cargados se conservan.
+     */
+    public void detenerVigilancia() {
+        VigilantePlugins actual;
+        synchronized (this) {
+            actual = vigilante;
+            vigilante = null;
+        }
+        // Fuera del bloqueo: el hilo vigilante puede estar esperándolo para aplicar un cambio
+        if (actual != null) {
+            actual.close();
+        }
+    }
 
     /**
      * Obtiene la cantidad total de juegos disponibles.
@@ -115,5 +276,23 @@ public class GameManager {
     public int getCantidadJuegos() {
         return juegosDisponibles.size();
     }
+
+    /**
+     * Perfil de la última carga de cada JAR de plugins, del más lento al más rápido.
+     *
+     * @see PluginLoader#getPerfilesCarga()
+     */
+    public List<PerfilJar> getPerfilesCarga() {
+        return pluginLoader.getPerfilesCarga();
+    }
+
+    /**
+     * Latencia de las llamadas a los juegos de cada JAR, del que más hizo esperar al que menos.
+     *
+     * @see PluginLoader#getEstadisticasPlugins()
+     */
+    public List<EstadisticasPlugin> getEstadisticasPlugins() {
+        return pluginLoader.getEstadisticasPlugins();
+    }
 }
 
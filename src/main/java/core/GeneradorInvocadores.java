@@ -0,0 +1,144 @@
+package core;
+
+import java.lang.classfile.ClassFile;
+import java.lang.classfile.CodeBuilder;
+import java.lang.constant.ClassDesc;
+import java.lang.constant.ConstantDescs;
+import java.lang.constant.DynamicConstantDesc;
+import java.lang.constant.MethodTypeDesc;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Genera con la API ClassFile una clase oculta que implementa
+ * {@link InvocadorPlugin} para una clase de juego concreta.
+ *
+ * La clase generada no puede nombrar las clases del plugin, que solo ve su
+ * propio ClassLoader: recibe los {@link MethodHandle}s de {@link MetodosPlugin}
+ * como datos de clase y los carga como constantes dinámicas. Para el JIT son
+ * constantes, así que cada llamada se compila como una llamada directa al
+ * método del plugin; la conversión de su Stat a {@code model.Stat} usa el
+ * {@link ConversorStat} de su clase, también como constante.
+ *
+ * La clase se define sin la opción {@code STRONG}: no queda retenida por el
+ * ClassLoader del sistema y se descarga junto con el plugin cuyos métodos usa.
+ */
+final class GeneradorInvocadores {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ClassDesc CD_INVOCADOR = ClassDesc.of(InvocadorPlugin.class.getName());
+    private static final ClassDesc CD_CONVERSOR = ClassDesc.of(ConversorStat.class.getName());
+    private static final ClassDesc CD_STAT = ClassDesc.of(model.Stat.class.getName());
+    private static final ClassDesc CD_GENERADA = ClassDesc.of(GeneradorInvocadores.class.getPackageName(), "InvocadorGenerado");
+
+    private static final MethodTypeDesc MTD_OBJETO = MethodTypeDesc.of(ConstantDescs.CD_Object);
+    private static final MethodTypeDesc MTD_OBJETO_VOID = MethodTypeDesc.of(ConstantDescs.CD_void, ConstantDescs.CD_Object);
+    private static final MethodTypeDesc MTD_OBJETO_OBJETO = MethodTypeDesc.of(ConstantDescs.CD_Object, ConstantDescs.CD_Object);
+    private static final MethodTypeDesc MTD_DOS_OBJETOS_VOID =
+            MethodTypeDesc.of(ConstantDescs.CD_void, ConstantDescs.CD_Object, ConstantDescs.CD_Object);
+    private static final MethodTypeDesc MTD_CONVERTIR = MethodTypeDesc.of(CD_STAT, ConstantDescs.CD_Object);
+
+    private GeneradorInvocadores() {
+    }
+
+    /**
+     * Genera y define el invocador de una clase de juego.
+     *
+     * @throws ReflectiveOperationException Si la clase generada no se puede definir o instanciar.
+     */
+    static InvocadorPlugin generar(MetodosPlugin metodos) throws ReflectiveOperationException {
+        // Los índices de esta lista son los que usa el bytecode para cargar cada método
+        List<MethodHandle> datos = new ArrayList<>();
+        int fabrica = agregar(datos, metodos.fabrica);
+        int iniciar = agregar(datos, metodos.iniciar);
+        int getStats = agregar(datos, metodos.getStats);
+        int setGameListener = agregar(datos, metodos.setGameListener);
+        int convertirStat = metodos.conversorStat == null ? -1 : agregar(datos, metodos.conversorStat.convertir);
+
+        byte[] bytes = ClassFile.of().build(CD_GENERADA, clase -> {
+            clase.withFlags(ClassFile.ACC_FINAL | ClassFile.ACC_SYNTHETIC)
+                 .withSuperclass(ConstantDescs.CD_Object)
+                 .withInterfaceSymbols(CD_INVOCADOR);
+
+            clase.withMethodBody(ConstantDescs.INIT_NAME, ConstantDescs.MTD_void, ClassFile.ACC_PUBLIC, codigo -> codigo
+                    .aload(0)
+                    .invokespecial(ConstantDescs.CD_Object, ConstantDescs.INIT_NAME, ConstantDescs.MTD_void)
+                    .return_());
+
+            clase.withMethodBody("crear", MTD_OBJETO, ClassFile.ACC_PUBLIC, codigo -> {
+                if (fabrica < 0) {
+                    codigo.aconst_null();
+                } else {
+                    cargarMetodo(codigo, fabrica);
+                    invocar(codigo, MTD_OBJETO);
+                }
+                codigo.areturn();
+            });
+
+            clase.withMethodBody("iniciar", MTD_OBJETO_VOID, ClassFile.ACC_PUBLIC, codigo -> {
+                cargarMetodo(codigo, iniciar);
+                codigo.aload(1);
+                invocar(codigo, MTD_OBJETO_VOID);
+                codigo.return_();
+            });
+
+            clase.withMethodBody("getStats", MTD_OBJETO_OBJETO, ClassFile.ACC_PUBLIC, codigo -> {
+                cargarMetodo(codigo, getStats);
+                codigo.aload(1);
+                invocar(codigo, MTD_OBJETO_OBJETO);
+                codigo.areturn();
+            });
+
+            clase.withMethodBody("setGameListener", MTD_DOS_OBJETOS_VOID, ClassFile.ACC_PUBLIC, codigo -> {
+                cargarMetodo(codigo, setGameListener);
+                codigo.aload(1).aload(2);
+                invocar(codigo, MTD_DOS_OBJETOS_VOID);
+                codigo.return_();
+            });
+
+            clase.withMethodBody("convertirStat", MTD_CONVERTIR, ClassFile.ACC_PUBLIC, codigo -> {
+                if (convertirStat < 0) {
+                    // El tipo declarado no tiene accesores: se usa el conversor de la clase real de cada Stat
+                    codigo.aload(1)
+                          .invokestatic(CD_CONVERSOR, "convertirStat", MTD_CONVERTIR);
+                } else {
+                    cargarMetodo(codigo, convertirStat);
+                    codigo.aload(1);
+                    invocar(codigo, MTD_CONVERTIR);
+                }
+                codigo.areturn();
+            });
+        });
+
+        MethodHandles.Lookup definida = LOOKUP.defineHiddenClassWithClassData(bytes, List.copyOf(datos), true);
+        try {
+            return (InvocadorPlugin) definida.findConstructor(definida.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (ReflectiveOperationException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int agregar(List<MethodHandle> datos, MethodHandle metodo) {
+        if (metodo == null) return -1;
+        datos.add(metodo);
+        return datos.size() - 1;
+    }
+
+    /**
+     * Carga el método {@code indice} de los datos de clase como constante dinámica.
+     */
+    private static void cargarMetodo(CodeBuilder codigo, int indice) {
+        codigo.loadConstant(DynamicConstantDesc.ofNamed(ConstantDescs.BSM_CLASS_DATA_AT,
+                ConstantDescs.DEFAULT_NAME, ConstantDescs.CD_MethodHandle, indice));
+    }
+
+    private static void invocar(CodeBuilder codigo, MethodTypeDesc tipo) {
+        codigo.invokevirtual(ConstantDescs.CD_MethodHandle, "invokeExact", tipo);
+    }
+}
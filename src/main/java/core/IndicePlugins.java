@@ -0,0 +1,213 @@
+package core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Índice en disco del resultado de escanear cada JAR de plugins.
+ * Por cada JAR guarda su tamaño, fecha de modificación y hash SHA-256, junto
+ * con las clases que resultaron ser juegos y cómo se crean. Un JAR que no
+ * cambió se carga directamente desde el índice, sin enumerar sus entradas
+ * ni cargar clases de prueba.
+ *
+ * Formato, una línea por JAR:
+ * <pre>
+ *   ruta|tamaño|modificado|sha256|clase:modo,clase:modo
+ * </pre>
+ * donde {@code modo} es {@code getInstance} o {@code constructor}.
+ */
+class IndicePlugins {
+    static final String NOMBRE_ARCHIVO = ".indice-plugins";
+    private static final String CABECERA = "#indice-plugins|1";
+
+    /**
+     * Clase de juego encontrada en un JAR.
+     */
+    static final class ClaseJuego {
+        final String nombreClase;
+        final boolean usaGetInstance;
+
+        ClaseJuego(String nombreClase, boolean usaGetInstance) {
+            this.nombreClase = nombreClase;
+            this.usaGetInstance = usaGetInstance;
+        }
+    }
+
+    /**
+     * Datos guardados de un JAR.
+     */
+    static final class Entrada {
+        final long tamano;
+        final long modificado;
+        final String hash;
+        final List<ClaseJuego> clases;
+
+        Entrada(long tamano, long modificado, String hash, List<ClaseJuego> clases) {
+            this.tamano = tamano;
+            this.modificado = modificado;
+            this.hash = hash;
+            this.clases = clases;
+        }
+    }
+
+    private final File archivo;
+    private final Map<String, Entrada> entradas = new HashMap<>();
+    private boolean modificado;
+
+    IndicePlugins(File archivo) {
+        this.archivo = archivo;
+        cargar();
+    }
+
+    /**
+     * Busca las clases de juego de un JAR sin abrirlo. Si el tamaño o la fecha
+     * cambiaron pero el contenido es el mismo (mismo hash), la entrada se
+     * actualiza y se reutiliza.
+     *
+     * @return La entrada vigente, o null si el JAR es nuevo o cambió.
+     */
+    synchronized Entrada buscar(File jar) {
+        Entrada entrada = entradas.get(clave(jar));
+        if (entrada == null) return null;
+        if (entrada.tamano == jar.length() && entrada.modificado == jar.lastModified()) {
+            return entrada;
+        }
+        String hash = calcularHash(jar);
+        if (hash == null || !hash.equals(entrada.hash)) return null;
+
+        Entrada actualizada = new Entrada(jar.length(), jar.lastModified(), hash, entrada.clases);
+        entradas.put(clave(jar), actualizada);
+        modificado = true;
+        return actualizada;
+    }
+
+    /**
+     * Guarda el resultado de escanear un JAR.
+     */
+    synchronized void registrar(File jar, List<ClaseJuego> clases) {
+        String hash = calcularHash(jar);
+        if (hash == null) return;
+        entradas.put(clave(jar), new Entrada(jar.length(), jar.lastModified(), hash, new ArrayList<>(clases)));
+        modificado = true;
+    }
+
+    /**
+     * Quita del índice un JAR, por ejemplo porque sus clases ya no cargan.
+     */
+    synchronized void eliminar(File jar) {
+        if (entradas.remove(clave(jar)) != null) {
+            modificado = true;
+        }
+    }
+
+    /**
+     * Conserva solo las entradas de los JARs indicados.
+     */
+    synchronized void retener(Collection<File> jars) {
+        Set<String> claves = new HashSet<>();
+        for (File jar : jars) {
+            claves.add(clave(jar));
+        }
+        if (entradas.keySet().retainAll(claves)) {
+            modificado = true;
+        }
+    }
+
+    /**
+     * Escribe el índice en disco si cambió, reemplazando el archivo de forma atómica.
+     */
+    synchronized void guardar() {
+        if (!modificado) return;
+        File temporal = new File(archivo.getPath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(temporal), StandardCharsets.UTF_8))) {
+            writer.write(CABECERA);
+            writer.newLine();
+            for (Map.Entry<String, Entrada> e : entradas.entrySet()) {
+                Entrada entrada = e.getValue();
+                StringBuilder clases = new StringBuilder();
+                for (ClaseJuego clase : entrada.clases) {
+                    if (clases.length() > 0) clases.append(',');
+                    clases.append(clase.nombreClase).append(':')
+                            .append(clase.usaGetInstance ? "getInstance" : "constructor");
+                }
+                writer.write(e.getKey() + "|" + entrada.tamano + "|" + entrada.modificado + "|"
+                        + entrada.hash + "|" + clases);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al guardar índice de plugins: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temporal.toPath(), archivo.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            modificado = false;
+        } catch (IOException e) {
+            System.err.println("Error al guardar índice de plugins: " + e.getMessage());
+        }
+    }
+
+    private void cargar() {
+        if (!archivo.exists()) return;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8))) {
+            String linea = reader.readLine();
+            if (!CABECERA.equals(linea)) {
+                System.err.println("Índice de plugins con formato desconocido, se reconstruirá");
+                return;
+            }
+            while ((linea = reader.readLine()) != null) {
+                String[] partes = linea.split("\\|", -1);
+                if (partes.length != 5) {
+                    System.err.println("Línea inválida en índice de plugins: " + linea);
+                    continue;
+                }
+                try {
+                    List<ClaseJuego> clases = new ArrayList<>();
+                    if (!partes[4].isEmpty()) {
+                        for (String clase : partes[4].split(",")) {
+                            int separador = clase.lastIndexOf(':');
+                            clases.add(new ClaseJuego(clase.substring(0, separador),
+                                    clase.substring(separador + 1).equals("getInstance")));
+                        }
+                    }
+                    entradas.put(partes[0], new Entrada(Long.parseLong(partes[1]), Long.parseLong(partes[2]),
+                            partes[3], clases));
+                } catch (RuntimeException e) {
+                    System.err.println("Línea inválida en índice de plugins: " + linea);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error al leer índice de plugins: " + e.getMessage());
+        }
+    }
+
+    private static String clave(File jar) {
+        return jar.getAbsolutePath();
+    }
+
+    private static String calcularHash(File jar) {
+        try (InputStream in = new FileInputStream(jar)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int leidos;
+            while ((leidos = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, leidos);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            System.err.println("Error al calcular hash de " + jar.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
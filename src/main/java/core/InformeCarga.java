@@ -0,0 +1,113 @@
+package core;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Guarda los {@link PerfilJar} de la última carga como JSON, junto a los
+ * plugins, para comparar cargas o revisarlas fuera de la aplicación.
+ */
+final class InformeCarga {
+    static final String NOMBRE_ARCHIVO = "perfil-carga.json";
+
+    private InformeCarga() {
+    }
+
+    /**
+     * Reemplaza el informe por uno con los perfiles dados. Los errores se
+     * informan y no interrumpen la carga.
+     */
+    static void guardar(File archivo, List<PerfilJar> perfiles) {
+        File temporal = new File(archivo.getPath() + ".tmp");
+        try (Writer out = new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(temporal), StandardCharsets.UTF_8))) {
+            out.write("{\n  \"generado\": ");
+            cadena(out, Instant.now().toString());
+            out.write(",\n  \"jars\": [");
+            for (int i = 0; i < perfiles.size(); i++) {
+                out.write(i == 0 ? "\n" : ",\n");
+                escribirJar(out, perfiles.get(i));
+            }
+            out.write(perfiles.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+        } catch (IOException e) {
+            System.err.println("Error al guardar el perfil de carga: " + e.getMessage());
+            return;
+        }
+        try {
+            Files.move(temporal.toPath(), archivo.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error al guardar el perfil de carga: " + e.getMessage());
+        }
+    }
+
+    private static void escribirJar(Writer out, PerfilJar perfil) throws IOException {
+        out.write("    {\"jar\": ");
+        cadena(out, perfil.getNombreJar());
+        out.write(", \"cargadoEn\": ");
+        cadena(out, perfil.getCargadoEn().toString());
+        out.write(", \"desdeIndice\": " + perfil.isDesdeIndice());
+        out.write(",\n     \"totalMs\": " + ms(perfil.getTotalMs())
+                + ", \"abrirMs\": " + ms(perfil.getAbrirMs())
+                + ", \"enumerarMs\": " + ms(perfil.getEnumerarMs())
+                + ", \"cargarMs\": " + ms(perfil.getCargarMs())
+                + ", \"probarMs\": " + ms(perfil.getProbarMs())
+                + ", \"instanciarMs\": " + ms(perfil.getInstanciarMs()));
+        out.write(",\n     \"bytesLeidos\": " + perfil.getBytesLeidos()
+                + ", \"bytesAsignados\": " + perfil.getBytesAsignados()
+                + ", \"clasesDefinidas\": " + perfil.getClasesDefinidas()
+                + ", \"clasesRechazadas\": " + perfil.getClasesRechazadas()
+                + ", \"juegos\": " + perfil.getJuegos());
+        out.write(",\n     \"clases\": [");
+        List<PerfilClase> clases = perfil.getClases();
+        for (int i = 0; i < clases.size(); i++) {
+            PerfilClase clase = clases.get(i);
+            out.write(i == 0 ? "\n       {\"clase\": " : ",\n       {\"clase\": ");
+            cadena(out, clase.getNombreClase());
+            out.write(", \"resultado\": ");
+            cadena(out, clase.getResultado().name());
+            out.write(", \"examinarMs\": " + ms(clase.getExaminarMs())
+                    + ", \"cargarMs\": " + ms(clase.getCargarMs())
+                    + ", \"probarMs\": " + ms(clase.getProbarMs())
+                    + ", \"instanciarMs\": " + ms(clase.getInstanciarMs())
+                    + ", \"bytesLeidos\": " + clase.getBytesLeidos()
+                    + ", \"bytesAsignados\": " + clase.getBytesAsignados() + "}");
+        }
+        out.write(clases.isEmpty() ? "]}" : "\n     ]}");
+    }
+
+    private static String ms(double valor) {
+        return String.format(Locale.ROOT, "%.3f", valor);
+    }
+
+    private static void cadena(Writer out, String texto) throws IOException {
+        out.write('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
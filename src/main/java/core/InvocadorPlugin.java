@@ -0,0 +1,35 @@
+package core;
+
+import model.Stat;
+
+/**
+ * Llamadas a los métodos de una clase de juego externa. Cada clase de plugin
+ * tiene su propia implementación, normalmente generada al cargarla por
+ * {@link GeneradorInvocadores}; las instancias se reciben como Object porque
+ * sus clases pertenecen al ClassLoader del plugin.
+ */
+interface InvocadorPlugin {
+    /**
+     * Crea u obtiene una instancia del juego con getInstance() o el constructor.
+     *
+     * @return La instancia, o null si la clase no tiene forma pública de crearla.
+     */
+    Object crear() throws Throwable;
+
+    void iniciar(Object juego) throws Throwable;
+
+    /**
+     * @return El Stat propio del plugin, sin convertir; puede ser null.
+     */
+    Object getStats(Object juego) throws Throwable;
+
+    /**
+     * @param listener Instancia de la interfaz de listener del plugin.
+     */
+    void setGameListener(Object juego, Object listener) throws Throwable;
+
+    /**
+     * Convierte un Stat del plugin en un {@link Stat} del sistema.
+     */
+    Stat convertirStat(Object statExterno) throws Throwable;
+}
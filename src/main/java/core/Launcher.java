@@ -4,13 +4,24 @@
  */
 package core;
 import GUI.UI;
+import records.RecordsManager;
+
+import javax.swing.*;
+import java.util.concurrent.CountDownLatch;
 /**
  *
  * @author danie
  * Punto de entrada principal del sistema de gestión de juegos.
  * Inicializa el GameManager y lanza la interfaz gráfica.
+ *
+ * Con {@code -Dgamemanager.entrenamiento=true} hace una corrida de
+ * entrenamiento sin ventana: recorre el arranque y la carga de plugins y
+ * termina, para que la JVM grabe las clases usadas en una caché AOT
+ * ({@code -XX:AOTCacheOutput}) que acelera los arranques siguientes.
  */
 public class Launcher {
+    /** Propiedad del sistema que activa la corrida de entrenamiento. */
+    static final String PROPIEDAD_ENTRENAMIENTO = "gamemanager.entrenamiento";
     
     /**
      * Método main - punto de entrada de la aplicación.
@@ -18,11 +29,18 @@ public class Launcher {
      * @param args Argumentos de línea de comandos (no utilizados).
      */
     public static void main(String[] args) {
+        MedidorArranque.marcarInicio();
         System.out.println("=== Iniciando Sistema de Gestión de Juegos ===");
         
-        // Inicializar el gestor de juegos (carga juegos internos y externos)
+        // Inicializar el gestor de juegos: registra los internos y carga los plugins en segundo plano
         GameManager gameManager = GameManager.getInstance();
-        System.out.println("GameManager inicializado con " + gameManager.getCantidadJuegos() + " juegos.");
+        System.out.println("GameManager inicializado con " + gameManager.getCantidadJuegos()
+                + " juegos; los plugins se agregan a medida que cargan.");
+
+        if (Boolean.getBoolean(PROPIEDAD_ENTRENAMIENTO)) {
+            entrenar(gameManager);
+            return;
+        }
         
         // Lanzar la interfaz gráfica en el hilo de eventos de Swing
         javax.swing.SwingUtilities.invokeLater(() -> {
@@ -32,5 +50,67 @@ public class Launcher {
         
         System.out.println("=== Sistema iniciado exitosamente ===");
     }
+
+    /**
+     * Corrida de entrenamiento: espera la carga de plugins, crea cada juego y
+     * lee sus records, y arma sin mostrarlos los componentes Swing de la
+     * ventana principal. Después termina la JVM.
+     */
+    private static void entrenar(GameManager gameManager) {
+        System.out.println("=== Corrida de entrenamiento (sin interfaz) ===");
+        CountDownLatch cargados = new CountDownLatch(1);
+        gameManager.agregarObservador(new ObservadorJuegos() {
+            @Override
+            public void juegoAgregado(DescriptorJuego juego) {
+            }
+
+            @Override
+            public void juegoEliminado(DescriptorJuego juego) {
+            }
+
+            @Override
+            public void cargaInicialTerminada() {
+                cargados.countDown();
+            }
+        });
+        if (!gameManager.isCargandoPlugins()) {
+            cargados.countDown();
+        }
+        try {
+            cargados.await();
+
+            RecordsManager recordsManager = new RecordsManager();
+            for (DescriptorJuego descriptor : gameManager.getDescriptores()) {
+                try {
+                    descriptor.obtener().getStats();
+                    recordsManager.getMejoresRecords(descriptor.getNombre());
+                } catch (RuntimeException e) {
+                    System.err.println("Entrenamiento: error con " + descriptor + ": " + e.getMessage());
+                }
+            }
+
+            // Los mismos tipos de componentes que arma UI; sin JFrame, que no existe sin pantalla
+            SwingUtilities.invokeAndWait(() -> {
+                JPanel panel = new JPanel(new java.awt.BorderLayout());
+                panel.add(new JLabel("Entrenamiento"), java.awt.BorderLayout.NORTH);
+                panel.add(new JScrollPane(new JTable(5, 5)), java.awt.BorderLayout.CENTER);
+                panel.add(new JButton("Entrenamiento"), java.awt.BorderLayout.SOUTH);
+                JDesktopPane escritorio = new JDesktopPane();
+                JInternalFrame interna = new JInternalFrame("Entrenamiento", true, true);
+                interna.add(new JSplitPane(JSplitPane.VERTICAL_SPLIT, panel, new JPanel()));
+                escritorio.add(interna);
+                interna.pack();
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (java.lang.reflect.InvocationTargetException e) {
+            System.err.println("Entrenamiento: error al armar componentes Swing: " + e.getCause());
+        }
+
+        gameManager.detenerVigilancia();
+        System.out.println("=== Entrenamiento terminado: " + gameManager.getCantidadJuegos() + " juegos ===");
+        // La caché AOT se escribe al salir de la JVM
+        System.exit(0);
+    }
 }
 
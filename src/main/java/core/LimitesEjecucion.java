@@ -0,0 +1,68 @@
+package core;
+
+/**
+ * Límites de tiempo para las llamadas a juegos externos, compartidos por
+ * todos los plugins de un {@link PluginLoader}. Los cambios se aplican a las
+ * llamadas siguientes, también en los plugins ya cargados.
+ */
+public final class LimitesEjecucion {
+    private volatile long tiempoMaximoIniciarMs = 10_000;
+    private volatile long tiempoMaximoMs = 2_000;
+    private volatile long umbralLentoMs = 250;
+    private volatile int fallosParaCuarentena = 3;
+
+    /**
+     * Tiempo tras el cual se avisa que {@code iniciar()} sigue bloqueando el
+     * hilo de eventos. No se interrumpe: el juego arma ahí su ventana.
+     */
+    public long getTiempoMaximoIniciarMs() {
+        return tiempoMaximoIniciarMs;
+    }
+
+    public void setTiempoMaximoIniciarMs(long tiempoMaximoIniciarMs) {
+        this.tiempoMaximoIniciarMs = positivo(tiempoMaximoIniciarMs);
+    }
+
+    /**
+     * Tiempo máximo del resto de las llamadas: crear la instancia y
+     * {@code getStats()}. En {@code setGameListener()}, que corre en el hilo
+     * del llamador, es el tiempo tras el cual se avisa que sigue en curso.
+     */
+    public long getTiempoMaximoMs() {
+        return tiempoMaximoMs;
+    }
+
+    public void setTiempoMaximoMs(long tiempoMaximoMs) {
+        this.tiempoMaximoMs = positivo(tiempoMaximoMs);
+    }
+
+    /**
+     * Duración a partir de la cual una llamada que termina bien cuenta como lenta.
+     */
+    public long getUmbralLentoMs() {
+        return umbralLentoMs;
+    }
+
+    public void setUmbralLentoMs(long umbralLentoMs) {
+        this.umbralLentoMs = positivo(umbralLentoMs);
+    }
+
+    /**
+     * Fallos o llamadas lentas seguidas tras las cuales un plugin queda en
+     * cuarentena: sus llamadas fallan sin ejecutarse hasta que se recargue su JAR.
+     */
+    public int getFallosParaCuarentena() {
+        return fallosParaCuarentena;
+    }
+
+    public void setFallosParaCuarentena(int fallosParaCuarentena) {
+        this.fallosParaCuarentena = (int) positivo(fallosParaCuarentena);
+    }
+
+    private static long positivo(long valor) {
+        if (valor <= 0) {
+            throw new IllegalArgumentException("El valor debe ser positivo: " + valor);
+        }
+        return valor;
+    }
+}
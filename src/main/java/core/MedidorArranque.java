@@ -0,0 +1,72 @@
+package core;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mide el arranque de la aplicación: cuánto tarda en aparecer la primera
+ * ventana que responde al usuario y cuánto en terminar de cargar los plugins,
+ * que siguen cargándose después de mostrarla.
+ *
+ * Los tiempos se cuentan desde que empieza {@link Launcher#main} y, como
+ * referencia, desde que arrancó la JVM.
+ */
+public final class MedidorArranque {
+    private static volatile long inicioNanos;
+    private static volatile long primerCuadroMs = -1;
+    private static final AtomicBoolean primerCuadroInformado = new AtomicBoolean();
+
+    private MedidorArranque() {
+    }
+
+    /**
+     * Marca el inicio del arranque. Sin esta marca se mide solo desde el
+     * arranque de la JVM.
+     */
+    static void marcarInicio() {
+        inicioNanos = System.nanoTime();
+    }
+
+    /**
+     * Avisa que la ventana principal ya se pintó y el hilo de eventos está
+     * libre para atender al usuario. Solo cuenta la primera vez.
+     */
+    public static void primerCuadroInteractivo() {
+        if (!primerCuadroInformado.compareAndSet(false, true)) return;
+        primerCuadroMs = msDesdeInicio();
+        informar("primer cuadro interactivo", primerCuadroMs);
+    }
+
+    /**
+     * Avisa que terminó la carga inicial de plugins.
+     */
+    static void pluginsCargados(int juegos) {
+        informar("plugins cargados (" + juegos + " juego(s))", msDesdeInicio());
+    }
+
+    /**
+     * Milisegundos desde el inicio hasta el primer cuadro interactivo, o -1
+     * si todavía no se mostró.
+     */
+    public static long getPrimerCuadroMs() {
+        return primerCuadroMs;
+    }
+
+    private static long msDesdeInicio() {
+        long inicio = inicioNanos;
+        if (inicio == 0) {
+            return ManagementFactory.getRuntimeMXBean().getUptime();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+
+    private static void informar(String hito, long ms) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (inicioNanos == 0) {
+            System.out.println("ARRANQUE: " + hito + " a " + ms + " ms del inicio de la JVM");
+        } else {
+            System.out.println("ARRANQUE: " + hito + " a " + ms + " ms de main (" + uptime + " ms del inicio de la JVM)");
+        }
+    }
+}
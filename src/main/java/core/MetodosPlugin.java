@@ -0,0 +1,174 @@
+package core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Métodos de una clase de juego externa, resueltos una única vez como
+ * {@link MethodHandle}s con tipos fijos, para que llamar al plugin no
+ * necesite buscar métodos ni pasar por {@code Method.invoke}.
+ *
+ * Se guardan por clase en un {@link ClassValue}: el valor vive en la propia
+ * clase del plugin y se libera junto con ella al descargar su ClassLoader.
+ *
+ * Las llamadas se hacen a través de {@link #invocador}, una clase generada
+ * por {@link GeneradorInvocadores}; si no se puede generar, se usa
+ * {@link InvocadorHandles}, que llama a los mismos métodos con invokeExact.
+ */
+final class MetodosPlugin {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodType TIPO_FABRICA = MethodType.methodType(Object.class);
+    private static final MethodType TIPO_INICIAR = MethodType.methodType(void.class, Object.class);
+    private static final MethodType TIPO_GET_STATS = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType TIPO_SET_LISTENER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<MetodosPlugin> POR_CLASE = new ClassValue<MetodosPlugin>() {
+        @Override
+        protected MetodosPlugin computeValue(Class<?> clase) {
+            try {
+                return new MetodosPlugin(clase);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("La clase " + clase.getName() + " no es un juego: " + e.getMessage(), e);
+            }
+        }
+    };
+
+    /** getInstance() si existe, si no el constructor sin argumentos; null si no hay ninguno. Tipo ()Object. */
+    final MethodHandle fabrica;
+    final boolean usaGetInstance;
+    /** Tipo (Object)void. */
+    final MethodHandle iniciar;
+    /** Tipo (Object)Object. */
+    final MethodHandle getStats;
+    /** Tipo (Object,Object)void. */
+    final MethodHandle setGameListener;
+    /** Interfaz de listener propia del plugin, parámetro de setGameListener. */
+    final Class<?> tipoListener;
+    /** Conversor del Stat que declara devolver getStats(); null si ese tipo no tiene los accesores. */
+    final ConversorStat conversorStat;
+    /**
+     * true si la interfaz de listener solo tiene el método onGameFinished(x):
+     * se puede implementar con {@link java.lang.invoke.MethodHandleProxies}.
+     */
+    final boolean listenerFuncional;
+    /** Llamadas a los métodos anteriores. */
+    final InvocadorPlugin invocador;
+
+    private MetodosPlugin(Class<?> clase) throws ReflectiveOperationException {
+        MethodHandle fabricaEncontrada;
+        boolean getInstance = true;
+        try {
+            fabricaEncontrada = LOOKUP.unreflect(clase.getMethod("getInstance"));
+        } catch (NoSuchMethodException e) {
+            getInstance = false;
+            try {
+                fabricaEncontrada = LOOKUP.unreflectConstructor(clase.getConstructor());
+            } catch (NoSuchMethodException ex) {
+                fabricaEncontrada = null;
+            }
+        }
+        this.fabrica = fabricaEncontrada == null ? null : fabricaEncontrada.asType(TIPO_FABRICA);
+        this.usaGetInstance = getInstance;
+
+        this.iniciar = LOOKUP.unreflect(clase.getMethod("iniciar")).asType(TIPO_INICIAR);
+        Method metodoGetStats = clase.getMethod("getStats");
+        this.getStats = LOOKUP.unreflect(metodoGetStats).asType(TIPO_GET_STATS);
+        this.conversorStat = ConversorStat.de(metodoGetStats.getReturnType());
+
+        Method metodoSetListener = null;
+        for (Method m : clase.getMethods()) {
+            if (m.getName().equals("setGameListener") && m.getParameterCount() == 1) {
+                metodoSetListener = m;
+                break;
+            }
+        }
+        if (metodoSetListener == null) {
+            throw new NoSuchMethodException("setGameListener");
+        }
+        this.tipoListener = metodoSetListener.getParameterTypes()[0];
+        this.setGameListener = LOOKUP.unreflect(metodoSetListener).asType(TIPO_SET_LISTENER);
+        this.listenerFuncional = esListenerFuncional(tipoListener);
+
+        InvocadorPlugin generado;
+        try {
+            generado = GeneradorInvocadores.generar(this);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            System.err.println("No se pudo generar el adaptador de " + clase.getName()
+                    + ", se usan llamadas por MethodHandle: " + e);
+            generado = new InvocadorHandles(this);
+        }
+        this.invocador = generado;
+    }
+
+    private static boolean esListenerFuncional(Class<?> tipo) {
+        if (!tipo.isInterface()) return false;
+        Method unico = null;
+        for (Method m : tipo.getMethods()) {
+            if (!Modifier.isAbstract(m.getModifiers())) continue;
+            if (unico != null) return false;
+            unico = m;
+        }
+        return unico != null && unico.getName().equals("onGameFinished") && unico.getParameterCount() == 1;
+    }
+
+    /**
+     * Obtiene los métodos de una clase de juego, resolviéndolos en el primer uso.
+     *
+     * @throws IllegalArgumentException Si la clase no tiene los métodos de un juego.
+     */
+    static MetodosPlugin de(Class<?> clase) {
+        return POR_CLASE.get(clase);
+    }
+
+    /**
+     * Crea u obtiene una instancia del juego.
+     *
+     * @return La instancia, o null si la clase no tiene forma pública de crearla.
+     */
+    Object nuevaInstancia() throws Throwable {
+        return invocador.crear();
+    }
+
+    /**
+     * Invocador de respaldo: llama a los {@link MethodHandle}s con invokeExact.
+     */
+    static final class InvocadorHandles implements InvocadorPlugin {
+        private final MetodosPlugin metodos;
+
+        InvocadorHandles(MetodosPlugin metodos) {
+            this.metodos = metodos;
+        }
+
+        @Override
+        public Object crear() throws Throwable {
+            return metodos.fabrica == null ? null : (Object) metodos.fabrica.invokeExact();
+        }
+
+        @Override
+        public void iniciar(Object juego) throws Throwable {
+            metodos.iniciar.invokeExact(juego);
+        }
+
+        @Override
+        public Object getStats(Object juego) throws Throwable {
+            return (Object) metodos.getStats.invokeExact(juego);
+        }
+
+        @Override
+        public void setGameListener(Object juego, Object listener) throws Throwable {
+            metodos.setGameListener.invokeExact(juego, listener);
+        }
+
+        @Override
+        public model.Stat convertirStat(Object statExterno) throws Throwable {
+            ConversorStat conversor = metodos.conversorStat;
+            if (conversor == null) {
+                return ConversorStat.convertirStat(statExterno);
+            }
+            return (model.Stat) conversor.convertir.invokeExact(statExterno);
+        }
+    }
+}
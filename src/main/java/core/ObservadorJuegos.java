@@ -0,0 +1,26 @@
+package core;
+
+/**
+ * Recibe los cambios en la lista de juegos disponibles del {@link GameManager}.
+ * Los avisos pueden llegar desde cualquier hilo, por ejemplo el que vigila el
+ * directorio de plugins; quien actualice componentes Swing debe pasar al hilo
+ * de eventos.
+ */
+public interface ObservadorJuegos {
+    /**
+     * Se agregó un juego, por ejemplo porque apareció o cambió su JAR.
+     */
+    void juegoAgregado(DescriptorJuego juego);
+
+    /**
+     * Se quitó un juego, por ejemplo porque se borró o cambió su JAR.
+     */
+    void juegoEliminado(DescriptorJuego juego);
+
+    /**
+     * Terminó la carga inicial de plugins, que se hace en segundo plano al
+     * arrancar; sus juegos ya se avisaron con {@link #juegoAgregado}.
+     */
+    default void cargaInicialTerminada() {
+    }
+}
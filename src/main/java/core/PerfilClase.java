@@ -0,0 +1,89 @@
+package core;
+
+/**
+ * Tiempos de una clase probada al cargar un JAR de plugins.
+ * Se completa durante la carga y no cambia una vez publicado.
+ */
+public final class PerfilClase {
+    /**
+     * Qué pasó con la clase.
+     */
+    public enum Resultado {
+        /** Es un juego y quedó cargado. */
+        JUEGO,
+        /** El bytecode mostró que no es un juego; no se llegó a cargar. */
+        DESCARTADA,
+        /** Se cargó pero no resultó ser un juego utilizable. */
+        RECHAZADA,
+        /** No se pudo cargar: falta la clase o alguna dependencia. */
+        ERROR
+    }
+
+    private final String nombreClase;
+    Resultado resultado = Resultado.RECHAZADA;
+    long nanosExaminar;
+    long nanosCargar;
+    long nanosProbar;
+    long nanosInstanciar;
+    long bytesLeidos;
+    /** -1 si la JVM no permite medirlo. */
+    long bytesAsignados = -1;
+
+    PerfilClase(String nombreClase) {
+        this.nombreClase = nombreClase;
+    }
+
+    public String getNombreClase() {
+        return nombreClase;
+    }
+
+    public Resultado getResultado() {
+        return resultado;
+    }
+
+    /**
+     * Tiempo de leer su bytecode en el JAR antes de decidir si cargarla.
+     */
+    public double getExaminarMs() {
+        return nanosExaminar / 1_000_000.0;
+    }
+
+    /**
+     * Tiempo de {@code loadClass}, incluida la definición de sus dependencias.
+     */
+    public double getCargarMs() {
+        return nanosCargar / 1_000_000.0;
+    }
+
+    /**
+     * Tiempo de comprobar sus métodos, crear el adaptador y validar {@code getStats()}.
+     */
+    public double getProbarMs() {
+        return nanosProbar / 1_000_000.0;
+    }
+
+    /**
+     * Tiempo de crear la instancia de prueba, incluido generar su invocador.
+     */
+    public double getInstanciarMs() {
+        return nanosInstanciar / 1_000_000.0;
+    }
+
+    public double getTotalMs() {
+        return (nanosExaminar + nanosCargar + nanosProbar + nanosInstanciar) / 1_000_000.0;
+    }
+
+    /**
+     * Bytes comprimidos de su .class leídos del JAR al examinarla.
+     */
+    public long getBytesLeidos() {
+        return bytesLeidos;
+    }
+
+    /**
+     * Memoria asignada mientras se probaba, o -1 si no se pudo medir.
+     */
+    public long getBytesAsignados() {
+        return bytesAsignados;
+    }
+}
@@ -0,0 +1,176 @@
+package core;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tiempos, lecturas y memoria de la última carga de un JAR de plugins.
+ * Se completa durante la carga y no cambia una vez publicado.
+ *
+ * Los tiempos de cargar, probar e instanciar suman los de todas sus clases;
+ * como las clases se prueban en paralelo, pueden superar el tiempo total.
+ */
+public final class PerfilJar {
+    private static final com.sun.management.ThreadMXBean HILOS = medidorHilos();
+
+    private final String nombreJar;
+    private final Instant cargadoEn = Instant.now();
+    /** true si se cargó desde el índice, sin escanear. */
+    boolean desdeIndice;
+    long nanosAbrir;
+    long nanosEnumerar;
+    long nanosCargar;
+    long nanosProbar;
+    long nanosInstanciar;
+    long nanosTotal;
+    long bytesLeidos;
+    /** -1 si la JVM no permite medirlo. */
+    long bytesAsignados = -1;
+    /**
+     * Asignado por las pruebas de clase en otros hilos, menos lo que el hilo
+     * del JAR asignó mientras las esperaba (que ya incluye las que ejecutó él).
+     */
+    long asignadosEnPruebas;
+    int clasesDefinidas;
+    int clasesRechazadas;
+    int juegos;
+    final List<PerfilClase> clases = new ArrayList<>();
+
+    PerfilJar(String nombreJar) {
+        this.nombreJar = nombreJar;
+    }
+
+    /**
+     * Suma los tiempos y lecturas de una clase probada.
+     */
+    void agregar(PerfilClase clase) {
+        clases.add(clase);
+        nanosCargar += clase.nanosCargar;
+        nanosProbar += clase.nanosExaminar + clase.nanosProbar;
+        nanosInstanciar += clase.nanosInstanciar;
+        bytesLeidos += clase.bytesLeidos;
+        if (clase.resultado != PerfilClase.Resultado.JUEGO) {
+            clasesRechazadas++;
+        }
+    }
+
+    /**
+     * Memoria asignada hasta ahora por el hilo actual, o -1 si la JVM no
+     * permite medirla (por ejemplo, en hilos virtuales de algunas versiones).
+     */
+    static long asignadosHilo() {
+        return HILOS != null ? HILOS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean medidorHilos() {
+        ThreadMXBean hilos = ManagementFactory.getThreadMXBean();
+        if (hilos instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean medidor = (com.sun.management.ThreadMXBean) hilos;
+            if (medidor.isThreadAllocatedMemorySupported() && medidor.isThreadAllocatedMemoryEnabled()) {
+                return medidor;
+            }
+        }
+        return null;
+    }
+
+    public String getNombreJar() {
+        return nombreJar;
+    }
+
+    public Instant getCargadoEn() {
+        return cargadoEn;
+    }
+
+    public boolean isDesdeIndice() {
+        return desdeIndice;
+    }
+
+    /**
+     * Tiempo de crear su ClassLoader y abrir el JAR.
+     */
+    public double getAbrirMs() {
+        return nanosAbrir / 1_000_000.0;
+    }
+
+    /**
+     * Tiempo de leer las clases declaradas o recorrer las entradas del JAR.
+     */
+    public double getEnumerarMs() {
+        return nanosEnumerar / 1_000_000.0;
+    }
+
+    public double getCargarMs() {
+        return nanosCargar / 1_000_000.0;
+    }
+
+    /**
+     * Tiempo de examinar el bytecode y comprobar las clases candidatas.
+     */
+    public double getProbarMs() {
+        return nanosProbar / 1_000_000.0;
+    }
+
+    public double getInstanciarMs() {
+        return nanosInstanciar / 1_000_000.0;
+    }
+
+    /**
+     * Tiempo real de la carga completa del JAR.
+     */
+    public double getTotalMs() {
+        return nanosTotal / 1_000_000.0;
+    }
+
+    /**
+     * Bytes comprimidos leídos del JAR: declaraciones, bytecode examinado y
+     * clases definidas por su ClassLoader.
+     */
+    public long getBytesLeidos() {
+        return bytesLeidos;
+    }
+
+    /**
+     * Memoria asignada durante la carga, o -1 si no se pudo medir.
+     */
+    public long getBytesAsignados() {
+        return bytesAsignados;
+    }
+
+    /**
+     * Clases que definió su ClassLoader durante la carga, dependencias incluidas.
+     */
+    public int getClasesDefinidas() {
+        return clasesDefinidas;
+    }
+
+    /**
+     * Clases candidatas que no resultaron ser juegos, se hayan cargado o no.
+     */
+    public int getClasesRechazadas() {
+        return clasesRechazadas;
+    }
+
+    public int getJuegos() {
+        return juegos;
+    }
+
+    /**
+     * Clases probadas, en el orden del JAR.
+     */
+    public List<PerfilClase> getClases() {
+        return Collections.unmodifiableList(clases);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s%s: total %.1f ms (abrir %.1f, enumerar %.1f, cargar %.1f, probar %.1f, instanciar %.1f),"
+                        + " %d bytes leídos, %d clase(s) definida(s), %d rechazada(s)%s",
+                nombreJar, desdeIndice ? " [índice]" : "", getTotalMs(), getAbrirMs(), getEnumerarMs(),
+                getCargarMs(), getProbarMs(), getInstanciarMs(), bytesLeidos, clasesDefinidas, clasesRechazadas,
+                bytesAsignados >= 0 ? ", " + bytesAsignados / 1024 + " KB asignados" : "");
+    }
+}
@@ -2,89 +2,733 @@ package core;
 
 import model.IGameFunction;
 
-import javax.swing.SwingUtilities;
-import javax.swing.JOptionPane;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
+import java.util.jar.Manifest;
 import java.util.Enumeration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import jdk.jfr.FlightRecorder;
 
 /**
  * Gestor de carga dinámica de juegos desde archivos JAR externos.
  * Compatible con JARs de diferentes estructuras de paquetes.
+ *
+ * Cada JAR tiene su propio ClassLoader. Cuando un JAR se borra o se reemplaza,
+ * sus juegos se liberan y su ClassLoader se cierra, soltando el archivo
+ * abierto; luego se sigue hasta que el recolector lo libera y se avisa de los
+ * que quedan retenidos.
  */
 public class PluginLoader {
+    private static final int PARALELISMO = Runtime.getRuntime().availableProcessors();
+    static final String ARCHIVO_SERVICIO = "META-INF/services/" + IGameFunction.class.getName();
+    static final String ATRIBUTO_MANIFIESTO = "Game-Classes";
     private File pluginsDir;
-    private static Map<IGameFunction, String> nombresOriginales = new HashMap<>();
-    private static Map<IGameFunction, ClassLoader> classLoaders = new HashMap<>();
+    private IndicePlugins indice;
+    private volatile boolean escaneoHeuristico;
+    private final Map<String, JarCargado> jarsCargados = new HashMap<>();
+    private final RegistroPlugins registro = new RegistroPlugins();
+    private final RastreadorCargadores rastreador =
+            new RastreadorCargadores(RastreadorCargadores.PLAZO_POR_DEFECTO_MS);
+    private final LimitesEjecucion limites = new LimitesEjecucion();
+    /** Perfil de la última carga de cada JAR presente, por ruta absoluta. */
+    private final Map<String, PerfilJar> perfiles = new HashMap<>();
 
-    public PluginLoader(File pluginsDir) {
-        this.pluginsDir = pluginsDir;
-        if (!pluginsDir.exists()) {
-            pluginsDir.mkdirs();
+    /**
+     * JAR ya cargado. Se reutiliza tal cual mientras no cambien su tamaño ni su fecha.
+     */
+    private static final class JarCargado {
+        final long tamano;
+        final long modificado;
+        /** null si el JAR no tiene juegos: se cierra en cuanto termina de escanearse. */
+        final URLClassLoader classLoader;
+        /** Ejecutor de las llamadas a sus juegos; null si no tiene juegos. */
+        final EjecutorPlugin ejecutor;
+        final List<AdaptadorPlugin> juegos;
+        /** Un descriptor por juego, en el mismo orden, para el registro. */
+        final List<DescriptorPlugin> descriptores;
+        /** false si el JAR no se pudo leer o no se buscaron juegos en él. */
+        final boolean indexado;
+
+        JarCargado(long tamano, long modificado, URLClassLoader classLoader, EjecutorPlugin ejecutor,
+                   List<AdaptadorPlugin> juegos, List<DescriptorPlugin> descriptores, boolean indexado) {
+            this.tamano = tamano;
+            this.modificado = modificado;
+            this.classLoader = classLoader;
+            this.ejecutor = ejecutor;
+            this.juegos = juegos;
+            this.descriptores = descriptores;
+            this.indexado = indexado;
+        }
+
+        boolean vigente(File archivoJar) {
+            return tamano == archivoJar.length() && modificado == archivoJar.lastModified();
+        }
+
+        /**
+         * Saca de la cuarentena al ejecutor que se reutiliza al recargar sin cambios.
+         *
+         * @return true si estaba en cuarentena.
+         */
+        boolean reactivar() {
+            return ejecutor != null && ejecutor.reactivar();
+        }
+    }
+
+    /**
+     * Juegos que cambiaron al recargar un único JAR.
+     */
+    static final class CambioJar {
+        final File archivoJar;
+        /** Juegos del JAR que ya no están disponibles. */
+        final List<IGameFunction> eliminados;
+        /** Juegos nuevos del JAR. */
+        final List<IGameFunction> agregados;
+
+        CambioJar(File archivoJar, List<IGameFunction> eliminados, List<IGameFunction> agregados) {
+            this.archivoJar = archivoJar;
+            this.eliminados = eliminados;
+            this.agregados = agregados;
+        }
+    }
+
+    /**
+     * Recibe los juegos de cada JAR en cuanto termina de cargarse, sin
+     * esperar a los demás.
+     */
+    interface ReceptorJuegos {
+        /**
+         * Se llama en el hilo que llamó a {@link #cargarPlugins(ReceptorJuegos)},
+         * una vez por JAR con juegos, en el orden en que terminan.
+         */
+        void jarListo(File archivoJar, List<IGameFunction> juegos);
+    }
+
+    /**
+     * Resultado de procesar un JAR en paralelo.
+     */
+    private static final class ResultadoJar {
+        final File archivoJar;
+        final Bitacora bitacora = new Bitacora();
+        ForkJoinTask<?> tarea;
+        /** true si ya se entregó al receptor y se imprimió su salida. */
+        boolean entregado;
+        JarCargado cargado;
+        PerfilJar perfil;
+        long duracion;
+
+        ResultadoJar(File archivoJar) {
+            this.archivoJar = archivoJar;
+        }
+    }
+
+    /**
+     * Resultado de probar una clase candidata.
+     */
+    private static final class ResultadoClase {
+        final Bitacora bitacora = new Bitacora();
+        final PerfilClase perfil;
+        AdaptadorPlugin juego;
+        IndicePlugins.ClaseJuego claseJuego;
+
+        ResultadoClase(String nombreClase) {
+            this.perfil = new PerfilClase(nombreClase);
+        }
+    }
+
+    /**
+     * Mensajes de la carga de un JAR o de una clase. Como se procesan en
+     * paralelo, cada uno acumula su salida y se imprime completa y en orden
+     * al terminar, en lugar de mezclarse con la de los demás.
+     */
+    private static final class Bitacora {
+        private final List<String> lineas = new ArrayList<>();
+        private final List<Boolean> errores = new ArrayList<>();
+
+        void info(String linea) {
+            lineas.add(linea);
+            errores.add(false);
+        }
+
+        void error(String linea) {
+            lineas.add(linea);
+            errores.add(true);
+        }
+
+        void agregar(Bitacora otra) {
+            lineas.addAll(otra.lineas);
+            errores.addAll(otra.errores);
+        }
+
+        void imprimir() {
+            for (int i = 0; i < lineas.size(); i++) {
+                if (errores.get(i)) {
+                    System.err.println(lineas.get(i));
+                } else {
+                    System.out.println(lineas.get(i));
+                }
+            }
         }
     }
 
+    public PluginLoader(File pluginsDir) {
+        setPluginsDir(pluginsDir);
+    }
+
     /**
      * Obtiene el nombre original de un juego cargado dinámicamente.
+     *
+     * @return El nombre, o null si el juego no viene de un plugin.
      */
     public static String getNombreOriginal(IGameFunction juego) {
-        return nombresOriginales.get(juego);
+        return juego instanceof AdaptadorPlugin ? ((AdaptadorPlugin) juego).getNombreOriginal() : null;
+    }
+
+    /**
+     * Registro de los juegos cargados por este gestor, con su JAR, su
+     * ClassLoader, su versión y el momento en que se cargaron. Se actualiza
+     * de forma atómica en cada carga o recarga y puede consultarse desde
+     * cualquier hilo.
+     */
+    public RegistroPlugins getRegistro() {
+        return registro;
     }
 
+    /**
+     * Carga los juegos de todos los JARs del directorio de plugins.
+     * Solo se procesan los JARs nuevos o modificados desde la última llamada:
+     * los demás devuelven los mismos juegos ya cargados. Un JAR modificado
+     * cuyo contenido figura en el índice se carga sin escanearlo.
+     *
+     * Los JARs se procesan en paralelo, y dentro de cada uno también se prueban
+     * en paralelo las clases candidatas. Los juegos se registran siempre en el
+     * mismo orden: por nombre de JAR y, dentro de cada JAR, por orden de entrada.
+     *
+     * @return Juegos de todos los JARs presentes.
+     */
     public List<IGameFunction> cargarPlugins() {
+        return cargarPlugins(null);
+    }
+
+    /**
+     * Igual que {@link #cargarPlugins()}, pero entrega a {@code receptor} los
+     * juegos de cada JAR en cuanto termina de cargarse, para mostrarlos sin
+     * esperar a los JARs más lentos. Los JARs sin cambios se entregan primero.
+     *
+     * @param receptor Recibe los juegos de cada JAR; null para no recibirlos.
+     * @return Juegos de todos los JARs presentes, en el orden habitual.
+     */
+    synchronized List<IGameFunction> cargarPlugins(ReceptorJuegos receptor) {
         List<IGameFunction> plugins = new ArrayList<>();
-        nombresOriginales.clear();
-        classLoaders.clear();
 
         File[] archivosJar = pluginsDir.listFiles((dir, name) -> name.toLowerCase().endsWith(".jar"));
 
         if (archivosJar == null || archivosJar.length == 0) {
             System.out.println("No se encontraron archivos JAR en el directorio de plugins.");
+            registro.vaciar();
+            descargarTodos();
+            indice.retener(Collections.emptyList());
+            indice.guardar();
+            perfiles.clear();
+            guardarInforme();
             return plugins;
         }
+        Arrays.sort(archivosJar, Comparator.comparing(File::getName));
 
-        for (File archivoJar : archivosJar) {
-            System.out.println("\n=== Procesando JAR: " + archivoJar.getName() + " ===");
-            try {
-                List<IGameFunction> juegosDelJar = cargarDesdeJar(archivoJar);
-                
-                for (IGameFunction juego : juegosDelJar) {
-                    if (juego != null) {
-                        plugins.add(juego);
+        long inicio = System.nanoTime();
+        List<ResultadoJar> resultados = new ArrayList<>();
+        BlockingQueue<ResultadoJar> terminados = new LinkedBlockingQueue<>();
+        int pendientes = 0;
+        int hilos = Math.min(PARALELISMO, archivosJar.length);
+        ForkJoinPool pool = new ForkJoinPool(hilos);
+        try {
+            for (File archivoJar : archivosJar) {
+                ResultadoJar resultado = new ResultadoJar(archivoJar);
+                JarCargado previo = jarsCargados.get(archivoJar.getAbsolutePath());
+                if (previo != null && previo.vigente(archivoJar)) {
+                    resultado.bitacora.info("\n=== JAR sin cambios: " + archivoJar.getName() + " ===");
+                    if (previo.reactivar()) {
+                        resultado.bitacora.info("Sale de cuarentena al recargar");
                     }
-                }
-                
-                if (juegosDelJar.isEmpty()) {
-                    System.out.println("WARNING: No se encontraron juegos compatibles en " + archivoJar.getName());
+                    resultado.cargado = previo;
                 } else {
-                    System.out.println("SUCCESS: Cargados " + juegosDelJar.size() + " juego(s) desde " + archivoJar.getName());
+                    resultado.tarea = pool.submit(() -> {
+                        try {
+                            procesarJar(resultado);
+                        } finally {
+                            terminados.add(resultado);
+                        }
+                    });
+                    pendientes++;
+                }
+                resultados.add(resultado);
+            }
+            if (receptor != null) {
+                for (ResultadoJar resultado : resultados) {
+                    if (resultado.tarea == null) {
+                        entregar(resultado, receptor);
+                    }
+                }
+            }
+            // Se esperan en el orden en que terminan, para entregar cada uno en cuanto está listo
+            for (int i = 0; i < pendientes; i++) {
+                ResultadoJar resultado = esperar(terminados);
+                if (receptor != null) {
+                    entregar(resultado, receptor);
                 }
-            } catch (Exception e) {
-                System.err.println("ERROR al procesar " + archivoJar.getName() + ": " + e.getMessage());
             }
+        } finally {
+            pool.shutdown();
+        }
+        long total = System.nanoTime() - inicio;
+
+        Map<String, JarCargado> vigentes = new HashMap<>();
+        Map<File, List<DescriptorPlugin>> descriptores = new LinkedHashMap<>();
+        long sumaPorJar = 0;
+        int procesados = 0;
+        for (ResultadoJar resultado : resultados) {
+            if (!resultado.entregado) {
+                resultado.bitacora.imprimir();
+            }
+            if (resultado.tarea != null) {
+                sumaPorJar += resultado.duracion;
+                procesados++;
+                perfiles.put(resultado.archivoJar.getAbsolutePath(), resultado.perfil);
+            }
+            if (resultado.cargado == null) continue;
+            vigentes.put(resultado.archivoJar.getAbsolutePath(), resultado.cargado);
+            descriptores.put(resultado.archivoJar, resultado.cargado.descriptores);
+            plugins.addAll(resultado.cargado.juegos);
+        }
+        // Publicar los juegos nuevos antes de liberar los reemplazados
+        registro.reemplazarTodo(descriptores);
+        for (Map.Entry<String, JarCargado> e : jarsCargados.entrySet()) {
+            if (vigentes.get(e.getKey()) != e.getValue()) {
+                descargar(new File(e.getKey()), e.getValue());
+            }
+        }
+        jarsCargados.clear();
+        jarsCargados.putAll(vigentes);
+        indice.retener(Arrays.asList(archivosJar));
+        indice.guardar();
+        Set<String> presentes = new HashSet<>();
+        for (File archivoJar : archivosJar) {
+            presentes.add(archivoJar.getAbsolutePath());
         }
+        perfiles.keySet().retainAll(presentes);
+        guardarInforme();
+        rastreador.informar();
 
         System.out.println("\n=== RESUMEN: Total de plugins cargados exitosamente: " + plugins.size() + " ===");
+        if (procesados > 0) {
+            System.out.printf("Tiempo de carga: %d ms con %d hilo(s) para %d JAR(s); secuencial serían ~%d ms (aceleración %.1fx)%n",
+                    total / 1_000_000, hilos, procesados, sumaPorJar / 1_000_000,
+                    (double) sumaPorJar / Math.max(1, total));
+        }
         return plugins;
     }
 
+    /**
+     * Imprime la salida de un JAR ya cargado, publica sus juegos en el
+     * registro y se los pasa al receptor.
+     */
+    private void entregar(ResultadoJar resultado, ReceptorJuegos receptor) {
+        resultado.entregado = true;
+        resultado.bitacora.imprimir();
+        JarCargado cargado = resultado.cargado;
+        if (cargado == null || cargado.juegos.isEmpty()) return;
+        registro.reemplazarJar(resultado.archivoJar, cargado.descriptores);
+        receptor.jarListo(resultado.archivoJar, new ArrayList<>(cargado.juegos));
+    }
+
+    /**
+     * Espera el siguiente JAR que termine. Una interrupción no corta la
+     * espera, porque la carga no puede quedar a medias; se conserva para el
+     * llamador.
+     */
+    private static ResultadoJar esperar(BlockingQueue<ResultadoJar> terminados) {
+        boolean interrumpido = false;
+        try {
+            while (true) {
+                try {
+                    return terminados.take();
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+        } finally {
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Carga, recarga o descarga un único JAR sin tocar los demás. Si el JAR
+     * ya no existe se descargan sus juegos; si no cambió desde la última
+     * carga no se hace nada.
+     *
+     * @return Los juegos que dejaron de estar disponibles y los nuevos.
+     */
+    synchronized CambioJar recargarJar(File archivoJar) {
+        String clave = archivoJar.getAbsolutePath();
+        JarCargado previo = jarsCargados.get(clave);
+        boolean existe = archivoJar.isFile();
+        if (previo != null && existe && previo.vigente(archivoJar)) {
+            if (previo.reactivar()) {
+                System.out.println(archivoJar.getName() + " sale de cuarentena al recargar");
+            }
+            return new CambioJar(archivoJar, Collections.emptyList(), Collections.emptyList());
+        }
+
+        List<IGameFunction> agregados = new ArrayList<>();
+        List<DescriptorPlugin> descriptores = Collections.emptyList();
+        JarCargado nuevo = null;
+        if (existe) {
+            ResultadoJar resultado = new ResultadoJar(archivoJar);
+            procesarJar(resultado);
+            resultado.bitacora.imprimir();
+            perfiles.put(clave, resultado.perfil);
+            nuevo = resultado.cargado;
+            if (nuevo != null) {
+                agregados.addAll(nuevo.juegos);
+                descriptores = nuevo.descriptores;
+            }
+        } else {
+            System.out.println("\n=== JAR eliminado: " + archivoJar.getName() + " ===");
+            indice.eliminar(archivoJar);
+            perfiles.remove(clave);
+        }
+        // Los juegos viejos del JAR se cambian por los nuevos en un solo paso
+        registro.reemplazarJar(archivoJar, descriptores);
+
+        List<IGameFunction> eliminados = new ArrayList<>();
+        if (previo != null) {
+            jarsCargados.remove(clave);
+            eliminados.addAll(previo.juegos);
+            descargar(archivoJar, previo);
+        }
+        if (nuevo != null) {
+            jarsCargados.put(clave, nuevo);
+        }
+        indice.guardar();
+        guardarInforme();
+        rastreador.informar();
+        return new CambioJar(archivoJar, eliminados, agregados);
+    }
+
+    /**
+     * Descarga un JAR: libera sus juegos, para que ninguna referencia que
+     * quede a ellos retenga sus clases, y cierra su ClassLoader.
+     */
+    private void descargar(File archivoJar, JarCargado cargado) {
+        for (AdaptadorPlugin juego : cargado.juegos) {
+            juego.liberar();
+        }
+        if (cargado.ejecutor != null) {
+            cargado.ejecutor.close();
+        }
+        cerrar(cargado.classLoader, archivoJar);
+    }
+
+    private void descargarTodos() {
+        for (Map.Entry<String, JarCargado> e : jarsCargados.entrySet()) {
+            descargar(new File(e.getKey()), e.getValue());
+        }
+        jarsCargados.clear();
+    }
+
+    /**
+     * Cierra un ClassLoader, lo que cierra el JAR abierto, y lo sigue hasta que se libere.
+     */
+    private void cerrar(URLClassLoader classLoader, File archivoJar) {
+        if (classLoader == null) return;
+        try {
+            classLoader.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el ClassLoader de " + archivoJar.getName() + ": " + e.getMessage());
+        }
+        rastreador.seguir(classLoader, archivoJar.getName());
+    }
+
+    /**
+     * JARs descargados cuyo ClassLoader sigue en memoria más allá del plazo
+     * de {@link RastreadorCargadores#PLAZO_POR_DEFECTO_MS}; indica que algo del plugin
+     * (un hilo, una ventana, un singleton) sigue referenciado.
+     *
+     * @return Descripciones como {@code "Juego.jar (hace 45 s)"}.
+     */
+    public List<String> getCargadoresRetenidos() {
+        return rastreador.sinLiberar();
+    }
+
+    /**
+     * Límites de tiempo de las llamadas a los juegos externos. Se pueden
+     * cambiar en cualquier momento y afectan también a los ya cargados.
+     */
+    public LimitesEjecucion getLimites() {
+        return limites;
+    }
+
+    /**
+     * Contadores de latencia de cada JAR cargado, empezando por el que más
+     * tiempo hizo esperar a sus llamadores.
+     */
+    public synchronized List<EstadisticasPlugin> getEstadisticasPlugins() {
+        List<EstadisticasPlugin> estadisticas = new ArrayList<>();
+        for (JarCargado cargado : jarsCargados.values()) {
+            if (cargado.ejecutor != null) {
+                estadisticas.add(cargado.ejecutor.estadisticas());
+            }
+        }
+        estadisticas.sort(Comparator.comparingDouble(EstadisticasPlugin::getTotalMs).reversed());
+        return estadisticas;
+    }
+
+    /**
+     * Perfil de la última carga de cada JAR presente: tiempo de cada fase,
+     * bytes leídos, memoria asignada y clases definidas y rechazadas,
+     * empezando por el JAR que más tardó en cargarse. Los JARs sin cambios
+     * conservan el perfil de cuando se cargaron.
+     *
+     * El mismo informe se guarda en {@value InformeCarga#NOMBRE_ARCHIVO},
+     * en el directorio de plugins. Si JFR ya está iniciado, cada carga emite
+     * además los eventos {@code gamemanager.plugins.CargaJar} y
+     * {@code gamemanager.plugins.CargaClase}; si no, sus clases ni se cargan,
+     * porque inicializar JFR retrasaría el arranque (ver {@link EventoCargaJar}).
+     */
+    public synchronized List<PerfilJar> getPerfilesCarga() {
+        List<PerfilJar> lista = new ArrayList<>(perfiles.values());
+        lista.sort(Comparator.comparingDouble(PerfilJar::getTotalMs).reversed());
+        return lista;
+    }
+
+    private void guardarInforme() {
+        InformeCarga.guardar(new File(pluginsDir, InformeCarga.NOMBRE_ARCHIVO), getPerfilesCarga());
+    }
+
+    /**
+     * Tarea de un JAR: lo carga y deja el resultado, su perfil y su salida en {@code resultado}.
+     */
+    private void procesarJar(ResultadoJar resultado) {
+        long inicio = System.nanoTime();
+        long asignadosInicio = PerfilJar.asignadosHilo();
+        EventoCargaJar evento = null;
+        if (FlightRecorder.isInitialized()) {
+            evento = new EventoCargaJar();
+            evento.begin();
+        }
+        File archivoJar = resultado.archivoJar;
+        Bitacora bitacora = resultado.bitacora;
+        PerfilJar perfil = new PerfilJar(archivoJar.getName());
+        resultado.perfil = perfil;
+        bitacora.info("\n=== Procesando JAR: " + archivoJar.getName() + " ===");
+        try {
+            JarCargado cargado = cargarDesdeJar(archivoJar, perfil, bitacora);
+            if (cargado.juegos.isEmpty()) {
+                bitacora.info("WARNING: No se encontraron juegos compatibles en " + archivoJar.getName());
+            } else {
+                bitacora.info("SUCCESS: Cargados " + cargado.juegos.size() + " juego(s) desde " + archivoJar.getName());
+            }
+            perfil.juegos = cargado.juegos.size();
+            resultado.cargado = cargado;
+        } catch (Exception e) {
+            bitacora.error("ERROR al procesar " + archivoJar.getName() + ": " + e.getMessage());
+        }
+        resultado.duracion = System.nanoTime() - inicio;
+
+        perfil.nanosTotal = resultado.duracion;
+        long asignadosFin = PerfilJar.asignadosHilo();
+        if (asignadosInicio >= 0 && asignadosFin >= 0) {
+            perfil.bytesAsignados = Math.max(0, perfil.asignadosEnPruebas + asignadosFin - asignadosInicio);
+        }
+        bitacora.info("Perfil: " + perfil);
+        if (evento != null && evento.shouldCommit()) {
+            evento.completar(perfil);
+            evento.commit();
+        }
+    }
+
+    /**
+     * Carga los juegos de un JAR, desde el índice si su contenido no cambió
+     * o escaneándolo completo en caso contrario.
+     */
     @SuppressWarnings("resource")
-    private List<IGameFunction> cargarDesdeJar(File archivoJar) {
-        List<IGameFunction> juegos = new ArrayList<>();
+    private JarCargado cargarDesdeJar(File archivoJar, PerfilJar perfil, Bitacora bitacora) throws IOException {
+        // Leer tamaño y fecha antes de abrirlo: si cambia durante la carga, la próxima vez se vuelve a procesar
+        long tamano = archivoJar.length();
+        long modificado = archivoJar.lastModified();
+        long inicioAbrir = System.nanoTime();
+        URL jarUrl = archivoJar.toURI().toURL();
+        CargadorPlugin classLoader = new CargadorPlugin(new URL[]{jarUrl}, getClass().getClassLoader());
+        EjecutorPlugin ejecutor = new EjecutorPlugin(archivoJar.getName(), classLoader, limites);
+        perfil.nanosAbrir += System.nanoTime() - inicioAbrir;
+
+        List<AdaptadorPlugin> juegos = null;
+        boolean indexado = true;
+        boolean listo = false;
+        try {
+            IndicePlugins.Entrada entrada = indice.buscar(archivoJar);
+            if (entrada != null) {
+                juegos = cargarDesdeIndice(entrada, ejecutor, perfil, bitacora);
+            } else {
+                List<IndicePlugins.ClaseJuego> encontradas = new ArrayList<>();
+                juegos = escanearJar(archivoJar, classLoader, ejecutor, encontradas, perfil, bitacora);
+                if (juegos != null) {
+                    indice.registrar(archivoJar, encontradas);
+                } else {
+                    juegos = new ArrayList<>();
+                    indexado = false;
+                }
+            }
+            listo = true;
+        } finally {
+            medirClasesDefinidas(archivoJar, classLoader.terminarAnotacion(), perfil);
+            if (!listo) {
+                ejecutor.close();
+                cerrar(classLoader, archivoJar);
+            }
+        }
+
+        if (juegos.isEmpty()) {
+            // Sin juegos no hace falta mantener abierto el JAR ni sus clases de prueba
+            ejecutor.close();
+            cerrar(classLoader, archivoJar);
+            return new JarCargado(tamano, modificado, null, null, juegos, Collections.emptyList(), indexado);
+        }
+
+        Instant cargadoEn = Instant.now();
+        String version = leerVersion(classLoader);
+        List<DescriptorPlugin> descriptores = new ArrayList<>();
+        for (AdaptadorPlugin juego : juegos) {
+            descriptores.add(new DescriptorPlugin(juego, juego.getNombreOriginal(), juego.getNombreClase(),
+                    archivoJar, classLoader, cargadoEn, version));
+        }
+        return new JarCargado(tamano, modificado, classLoader, ejecutor, juegos,
+                Collections.unmodifiableList(descriptores), indexado);
+    }
+
+    /**
+     * Anota en el perfil las clases que definió el ClassLoader y los bytes
+     * comprimidos que ocupan en el JAR. Abrir el JAR aquí no lo vuelve a
+     * leer: comparte el directorio ya leído por el ClassLoader.
+     */
+    private static void medirClasesDefinidas(File archivoJar, List<String> definidas, PerfilJar perfil) {
+        perfil.clasesDefinidas = definidas.size();
+        if (definidas.isEmpty()) return;
+        try (JarFile jarFile = new JarFile(archivoJar)) {
+            for (String nombreClase : definidas) {
+                JarEntry entrada = jarFile.getJarEntry(nombreClase.replace('.', '/') + ".class");
+                if (entrada != null && entrada.getCompressedSize() > 0) {
+                    perfil.bytesLeidos += entrada.getCompressedSize();
+                }
+            }
+        } catch (IOException e) {
+            // Solo afecta al perfil
+        }
+    }
 
+    /**
+     * Lee el atributo {@code Implementation-Version} del manifiesto del JAR.
+     * Solo se busca en el propio JAR, no en los ClassLoaders padre.
+     *
+     * @return La versión, o null si el JAR no tiene manifiesto o no la declara.
+     */
+    private static String leerVersion(URLClassLoader classLoader) {
+        URL url = classLoader.findResource(JarFile.MANIFEST_NAME);
+        if (url == null) {
+            return null;
+        }
         try {
-            URL jarUrl = archivoJar.toURI().toURL();
-            URLClassLoader classLoader = new URLClassLoader(new URL[]{jarUrl}, getClass().getClassLoader());
+            // Sin caché: si no, el JAR queda abierto después de cerrar el ClassLoader
+            URLConnection conexion = url.openConnection();
+            conexion.setUseCaches(false);
+            try (InputStream in = conexion.getInputStream()) {
+                return new Manifest(in).getMainAttributes().getValue(Attributes.Name.IMPLEMENTATION_VERSION);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Crea los juegos de las clases que el índice tiene registradas sin
+     * cargar ninguna clase del JAR: cada juego carga su clase y crea su
+     * instancia la primera vez que se usa. El índice solo se usa si el JAR
+     * no cambió, así que sus clases siguen siendo juegos.
+     */
+    private List<AdaptadorPlugin> cargarDesdeIndice(IndicePlugins.Entrada entrada, EjecutorPlugin ejecutor,
+                                                    PerfilJar perfil, Bitacora bitacora) {
+        bitacora.info("Índice vigente: " + entrada.clases.size() + " clase(s) de juego, sin escanear ni cargar");
+        perfil.desdeIndice = true;
+        List<AdaptadorPlugin> juegos = new ArrayList<>();
+        for (IndicePlugins.ClaseJuego claseJuego : entrada.clases) {
+            String nombreClase = claseJuego.nombreClase;
+            String nombreSimple = nombreClase.substring(nombreClase.lastIndexOf('.') + 1);
+            juegos.add(new AdaptadorPlugin(nombreSimple, nombreClase, ejecutor));
+            PerfilClase perfilClase = new PerfilClase(nombreClase);
+            perfilClase.resultado = PerfilClase.Resultado.JUEGO;
+            perfil.agregar(perfilClase);
+            bitacora.info("  -> SUCCESS: Plugin registrado: " + nombreClase);
+        }
+        return juegos;
+    }
+
+    /**
+     * Busca los juegos de un JAR. Si el JAR los declara (archivo de servicio
+     * {@code META-INF/services/model.IGameFunction} o atributo de manifiesto
+     * {@code Game-Classes}), solo se cargan esas clases, sin crear instancias. Si no declara nada y
+     * el escaneo heurístico está activado, se prueban todas sus clases; antes
+     * de cargar cada una se lee su bytecode y se descartan las que no declaran
+     * los métodos de un juego.
+     * Las candidatas se prueban en paralelo y sus resultados se juntan en orden.
+     *
+     * @param encontradas Recibe las clases de juego válidas, para el índice.
+     * @return Los juegos, o null si el JAR no se pudo leer o no se buscó en él.
+     */
+    private List<AdaptadorPlugin> escanearJar(File archivoJar, ClassLoader classLoader, EjecutorPlugin ejecutor,
+                                              List<IndicePlugins.ClaseJuego> encontradas, PerfilJar perfil,
+                                              Bitacora bitacora) {
+        List<AdaptadorPlugin> juegos = new ArrayList<>();
+
+        long inicio = System.nanoTime();
+        try (JarFile jarFile = new JarFile(archivoJar)) {
+            perfil.nanosAbrir += System.nanoTime() - inicio;
+            inicio = System.nanoTime();
+            List<String> candidatas = leerDeclaradas(jarFile);
+            perfil.bytesLeidos += tamanoComprimido(jarFile, ARCHIVO_SERVICIO) + tamanoComprimido(jarFile, JarFile.MANIFEST_NAME);
+            boolean declaradas = !candidatas.isEmpty();
 
-            try (JarFile jarFile = new JarFile(archivoJar)) {
+            if (declaradas) {
+                bitacora.info("Juegos declarados: " + candidatas.size());
+            } else if (escaneoHeuristico) {
                 Enumeration<JarEntry> entries = jarFile.entries();
                 List<String> clasesEncontradas = new ArrayList<>();
 
@@ -98,54 +742,248 @@ public class PluginLoader {
                     }
                 }
 
-                System.out.println("Clases encontradas: " + clasesEncontradas.size());
+                bitacora.info("Sin juegos declarados, escaneo heurístico. Clases encontradas: " + clasesEncontradas.size());
 
                 for (String nombreClase : clasesEncontradas) {
-                    if (nombreClase.toLowerCase().contains("listener") || 
+                    if (nombreClase.toLowerCase().contains("listener") ||
                         nombreClase.toLowerCase().contains("stat") ||
                         nombreClase.toLowerCase().contains("function") ||
                         nombreClase.toLowerCase().contains("interface")) {
                         continue;
                     }
+                    candidatas.add(nombreClase);
+                }
+            } else {
+                bitacora.info("Sin juegos declarados (" + ARCHIVO_SERVICIO + " o atributo " + ATRIBUTO_MANIFIESTO
+                        + ") y escaneo heurístico desactivado");
+                return null;
+            }
+            perfil.nanosEnumerar += System.nanoTime() - inicio;
+
+            List<ForkJoinTask<ResultadoClase>> pruebas = new ArrayList<>();
+            for (String nombreClase : candidatas) {
+                // Las clases declaradas no necesitan instancia de prueba, ni getStats(), ni revisar el bytecode
+                JarFile bytecode = declaradas ? null : jarFile;
+                pruebas.add(ForkJoinTask.adapt(() -> probarClase(nombreClase, classLoader, ejecutor, declaradas, bytecode,
+                        archivoJar.getName())));
+            }
+            // Este hilo también ejecuta algunas pruebas; lo que asignen ya lo mide cada una
+            long asignadosAntes = PerfilJar.asignadosHilo();
+            ForkJoinTask.invokeAll(pruebas);
+            long asignadosDespues = PerfilJar.asignadosHilo();
+
+            int descartadas = 0;
+            long asignadosClases = 0;
+            for (ForkJoinTask<ResultadoClase> prueba : pruebas) {
+                ResultadoClase resultado = prueba.join();
+                bitacora.agregar(resultado.bitacora);
+                perfil.agregar(resultado.perfil);
+                asignadosClases += Math.max(0, resultado.perfil.bytesAsignados);
+                if (resultado.perfil.resultado == PerfilClase.Resultado.DESCARTADA) {
+                    descartadas++;
+                }
+                if (resultado.juego != null) {
+                    juegos.add(resultado.juego);
+                    encontradas.add(resultado.claseJuego);
+                }
+            }
+            if (!declaradas) {
+                bitacora.info("Clases descartadas sin cargar: " + descartadas + " de " + candidatas.size());
+            }
+            if (asignadosAntes >= 0 && asignadosDespues >= 0) {
+                perfil.asignadosEnPruebas = asignadosClases - (asignadosDespues - asignadosAntes);
+            }
+        } catch (Exception e) {
+            bitacora.error("ERROR crítico al procesar JAR: " + e.getMessage());
+            return null;
+        }
+
+        return juegos;
+    }
+
+    private static long tamanoComprimido(JarFile jarFile, String nombreEntrada) {
+        JarEntry entrada = jarFile.getJarEntry(nombreEntrada);
+        return entrada != null ? Math.max(0, entrada.getCompressedSize()) : 0;
+    }
+
+    /**
+     * Lee las clases de juego que declara un JAR, sin cargar ninguna.
+     *
+     * @return Nombres de clase en orden de declaración; vacío si no declara ninguna.
+     */
+    private static List<String> leerDeclaradas(JarFile jarFile) throws IOException {
+        Set<String> clases = new LinkedHashSet<>();
+        JarEntry servicio = jarFile.getJarEntry(ARCHIVO_SERVICIO);
+        if (servicio != null) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(jarFile.getInputStream(servicio), StandardCharsets.UTF_8))) {
+                String linea;
+                while ((linea = reader.readLine()) != null) {
+                    // Mismo formato que ServiceLoader: una clase por línea, '#' inicia un comentario
+                    int comentario = linea.indexOf('#');
+                    if (comentario >= 0) {
+                        linea = linea.substring(0, comentario);
+                    }
+                    linea = linea.trim();
+                    if (!linea.isEmpty()) {
+                        clases.add(linea);
+                    }
+                }
+            }
+        }
+        Manifest manifiesto = jarFile.getManifest();
+        if (manifiesto != null) {
+            String atributo = manifiesto.getMainAttributes().getValue(ATRIBUTO_MANIFIESTO);
+            if (atributo != null) {
+                for (String clase : atributo.trim().split("[,\\s]+")) {
+                    if (!clase.isEmpty()) {
+                        clases.add(clase);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(clases);
+    }
+
+    /**
+     * Activa o desactiva el escaneo heurístico de los JARs que no declaran
+     * sus juegos. Está desactivado por defecto: el escaneo carga todas las
+     * clases del JAR solo para probarlas, y existe para JARs antiguos.
+     * El cambio se aplica a los JARs que se procesen a partir de ahora.
+     *
+     * @param activado true para probar todas las clases de esos JARs.
+     */
+    public synchronized void setEscaneoHeuristico(boolean activado) {
+        if (escaneoHeuristico != activado) {
+            escaneoHeuristico = activado;
+            // Los JARs en los que no se buscaron juegos deben volver a procesarse
+            // (no tienen juegos, así que su ClassLoader ya está cerrado)
+            jarsCargados.values().removeIf(cargado -> !cargado.indexado);
+        }
+    }
+
+    public boolean isEscaneoHeuristico() {
+        return escaneoHeuristico;
+    }
+
+    /**
+     * Carga una clase candidata y comprueba si es un juego válido.
+     *
+     * @param declarada true si el JAR la declara como juego: no se crea su
+     *                  instancia ni se prueba su getStats(), solo se comprueban
+     *                  sus métodos, y se informa si no resulta ser un juego.
+     * @param jarFile   Si no es null, antes de cargar la clase se examina su
+     *                  bytecode en este JAR y se descarta sin cargarla si no
+     *                  declara los métodos de un juego.
+     */
+    private ResultadoClase probarClase(String nombreClase, ClassLoader classLoader, EjecutorPlugin ejecutor,
+                                       boolean declarada, JarFile jarFile, String nombreJar) {
+        ResultadoClase resultado = new ResultadoClase(nombreClase);
+        Bitacora bitacora = resultado.bitacora;
+        PerfilClase perfil = resultado.perfil;
+        EventoCargaClase evento = null;
+        if (FlightRecorder.isInitialized()) {
+            evento = new EventoCargaClase();
+            evento.begin();
+        }
+        long asignadosInicio = PerfilJar.asignadosHilo();
+        try {
+            long inicio = System.nanoTime();
+            if (jarFile != null && examinarBytecode(jarFile, nombreClase, perfil) == EscanerBytecode.Veredicto.DESCARTADA) {
+                perfil.nanosExaminar = System.nanoTime() - inicio;
+                perfil.resultado = PerfilClase.Resultado.DESCARTADA;
+                return resultado;
+            }
+            perfil.nanosExaminar = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            Class<?> clase = classLoader.loadClass(nombreClase);
+            perfil.nanosCargar = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            boolean esJuego = tieneMetodosDeJuego(clase);
+            perfil.nanosProbar = System.nanoTime() - inicio;
+            if (esJuego && declarada) {
+                // Declarada por el JAR: no se crea ninguna instancia para listarla, igual que desde el índice
+                inicio = System.nanoTime();
+                MetodosPlugin metodos = MetodosPlugin.de(clase);
+                perfil.nanosProbar += System.nanoTime() - inicio;
+                if (metodos.fabrica == null) {
+                    bitacora.info("  -> FAIL: " + nombreClase + " no tiene getInstance() ni constructor público");
+                } else {
+                    resultado.juego = new AdaptadorPlugin(clase.getSimpleName(), nombreClase, ejecutor);
+                    resultado.claseJuego = new IndicePlugins.ClaseJuego(nombreClase, metodos.usaGetInstance);
+                    perfil.resultado = PerfilClase.Resultado.JUEGO;
+                    bitacora.info("  -> SUCCESS: Plugin registrado: " + nombreClase);
+                }
+            } else if (esJuego) {
+                bitacora.info("  -> Candidato: " + nombreClase);
+
+                inicio = System.nanoTime();
+                Object instancia = instanciarJuego(clase, ejecutor, perfil);
+                perfil.nanosInstanciar = System.nanoTime() - inicio;
+                if (instancia != null) {
+                    String nombreSimple = clase.getSimpleName();
 
-                    try {
-                        Class<?> clase = classLoader.loadClass(nombreClase);
-                        
-                        if (tieneMetodosDeJuego(clase)) {
-                            System.out.println("  -> Candidato: " + nombreClase);
-                            
-                            Object instancia = instanciarJuego(clase);
-                            if (instancia != null) {
-                                String nombreSimple = clase.getSimpleName();
-                                
-                                IGameFunction juegoAdaptado = crearAdaptador(instancia, clase, nombreSimple, classLoader);
-                                if (juegoAdaptado != null) {
-                                    try {
-                                        model.Stat testStat = juegoAdaptado.getStats();
-                                        if (testStat != null) {
-                                            juegos.add(juegoAdaptado);
-                                            nombresOriginales.put(juegoAdaptado, nombreSimple);
-                                            classLoaders.put(juegoAdaptado, classLoader);
-                                            System.out.println("  -> SUCCESS: Plugin cargado: " + nombreClase);
-                                        }
-                                    } catch (Exception e) {
-                                        System.out.println("  -> FAIL: Error al validar " + nombreClase);
-                                    }
-                                }
+                    inicio = System.nanoTime();
+                    AdaptadorPlugin juegoAdaptado = crearAdaptador(instancia, clase, nombreSimple, ejecutor);
+                    if (juegoAdaptado != null) {
+                        try {
+                            if (juegoAdaptado.getStats() != null) {
+                                resultado.juego = juegoAdaptado;
+                                resultado.claseJuego = new IndicePlugins.ClaseJuego(nombreClase,
+                                        MetodosPlugin.de(clase).usaGetInstance);
+                                perfil.resultado = PerfilClase.Resultado.JUEGO;
+                                bitacora.info("  -> SUCCESS: Plugin cargado: " + nombreClase);
                             }
+                        } catch (Exception e) {
+                            bitacora.info("  -> FAIL: Error al validar " + nombreClase);
                         }
-                    } catch (NoClassDefFoundError e) {
-                        System.out.println("  -> SKIP: " + nombreClase + " (dependencias faltantes)");
-                    } catch (Exception e) {
-                        // Silenciar
                     }
+                    perfil.nanosProbar += System.nanoTime() - inicio;
                 }
+            } else if (declarada) {
+                bitacora.info("  -> FAIL: " + nombreClase + " está declarada pero no tiene los métodos de un juego");
+            }
+        } catch (NoClassDefFoundError e) {
+            perfil.resultado = PerfilClase.Resultado.ERROR;
+            bitacora.info("  -> SKIP: " + nombreClase + " (dependencias faltantes)");
+        } catch (ClassNotFoundException e) {
+            perfil.resultado = PerfilClase.Resultado.ERROR;
+            if (declarada) {
+                bitacora.info("  -> FAIL: " + nombreClase + " está declarada pero no existe en el JAR");
             }
         } catch (Exception e) {
-            System.err.println("ERROR crítico al procesar JAR: " + e.getMessage());
+            // Silenciar
+        } finally {
+            long asignadosFin = PerfilJar.asignadosHilo();
+            if (asignadosInicio >= 0 && asignadosFin >= 0) {
+                perfil.bytesAsignados = Math.max(0, perfil.bytesAsignados) + asignadosFin - asignadosInicio;
+            }
+            if (evento != null && evento.shouldCommit()) {
+                evento.completar(nombreJar, perfil);
+                evento.commit();
+            }
         }
+        return resultado;
+    }
 
-        return juegos;
+    /**
+     * Examina el .class de una clase directamente desde el JAR, sin definirla.
+     * Ante cualquier problema de lectura devuelve {@link EscanerBytecode.Veredicto#INCIERTA},
+     * para que la clase se cargue y se compruebe como antes.
+     */
+    private static EscanerBytecode.Veredicto examinarBytecode(JarFile jarFile, String nombreClase, PerfilClase perfil) {
+        JarEntry entrada = jarFile.getJarEntry(nombreClase.replace('.', '/') + ".class");
+        if (entrada == null) {
+            return EscanerBytecode.Veredicto.INCIERTA;
+        }
+        perfil.bytesLeidos = Math.max(0, entrada.getCompressedSize());
+        try (InputStream in = new BufferedInputStream(jarFile.getInputStream(entrada))) {
+            return EscanerBytecode.examinar(in);
+        } catch (IOException | RuntimeException e) {
+            return EscanerBytecode.Veredicto.INCIERTA;
+        }
     }
 
     private boolean tieneMetodosDeJuego(Class<?> clase) {
@@ -176,208 +1014,54 @@ public class PluginLoader {
         }
     }
 
-    private IGameFunction crearAdaptador(Object juegoExterno, Class<?> claseJuego, String nombreOriginal, ClassLoader jarClassLoader) {
-        return new IGameFunction() {
-            private Object instanciaActual = juegoExterno;
-            private ClassLoader gameClassLoader = jarClassLoader;
-            
-            @Override
-            public void iniciar() {
-                // Guardar el ClassLoader actual del hilo
-                Thread currentThread = Thread.currentThread();
-                ClassLoader originalClassLoader = currentThread.getContextClassLoader();
-                
-                try {
-                    // Establecer el ClassLoader del JAR como contexto
-                    currentThread.setContextClassLoader(gameClassLoader);
-                    
-                    System.out.println("DEBUG: Iniciando juego externo: " + nombreOriginal);
-                    System.out.println("DEBUG: ClassLoader configurado: " + gameClassLoader.getClass().getName());
-                    
-                    // Intentar crear una nueva instancia para cada partida
-                    try {
-                        Method getInstance = claseJuego.getMethod("getInstance");
-                        instanciaActual = getInstance.invoke(null);
-                        System.out.println("DEBUG: Nueva instancia obtenida via getInstance()");
-                    } catch (NoSuchMethodException e) {
-                        try {
-                            instanciaActual = claseJuego.getDeclaredConstructor().newInstance();
-                            System.out.println("DEBUG: Nueva instancia creada via constructor");
-                        } catch (Exception ex) {
-                            System.out.println("DEBUG: Usando instancia existente");
-                        }
-                    }
-                    
-                    Method metodo = claseJuego.getMethod("iniciar");
-                    metodo.invoke(instanciaActual);
-                    System.out.println("DEBUG: Juego iniciado correctamente: " + nombreOriginal);
-                    
-                } catch (Exception e) {
-                    System.err.println("ERROR al iniciar juego " + nombreOriginal + ": " + e.getMessage());
-                    e.printStackTrace();
-                    
-                    SwingUtilities.invokeLater(() -> {
-                        JOptionPane.showMessageDialog(
-                            null,
-                            "Error al iniciar el juego " + nombreOriginal + ":\n" + e.getMessage(),
-                            "Error",
-                            JOptionPane.ERROR_MESSAGE
-                        );
-                    });
-                } finally {
-                    // Restaurar el ClassLoader original
-                    currentThread.setContextClassLoader(originalClassLoader);
-                }
-            }
-
-            @Override
-            public model.Stat getStats() {
-                Thread currentThread = Thread.currentThread();
-                ClassLoader originalClassLoader = currentThread.getContextClassLoader();
-                
-                try {
-                    currentThread.setContextClassLoader(gameClassLoader);
-                    
-                    Method metodo = claseJuego.getMethod("getStats");
-                    Object statExterno = metodo.invoke(instanciaActual);
-                    
-                    if (statExterno == null) {
-                        return new model.Stat("puntos", "Puntos", 0);
-                    }
-                    
-                    Class<?> statClass = statExterno.getClass();
-                    Method getClave = statClass.getMethod("getClave");
-                    Method getNombre = statClass.getMethod("getNombre");
-                    Method getValor = statClass.getMethod("getValor");
-                    
-                    String clave = (String) getClave.invoke(statExterno);
-                    String nombre = (String) getNombre.invoke(statExterno);
-                    
-                    Object valorObj = getValor.invoke(statExterno);
-                    int valor = 0;
-                    if (valorObj instanceof Integer) {
-                        valor = (Integer) valorObj;
-                    } else if (valorObj instanceof String) {
-                        try {
-                            valor = Integer.parseInt((String) valorObj);
-                        } catch (NumberFormatException e) {
-                            valor = 0;
-                        }
-                    }
-                    
-                    return new model.Stat(clave, nombre, valor);
-                } catch (Exception e) {
-                    System.err.println("Error al obtener stats de " + nombreOriginal + ": " + e.getMessage());
-                    return new model.Stat("error", "Error", 0);
-                } finally {
-                    currentThread.setContextClassLoader(originalClassLoader);
-                }
-            }
-
-            @Override
-            public void setGameListener(model.IGameListener listener) {
-                Thread currentThread = Thread.currentThread();
-                ClassLoader originalClassLoader = currentThread.getContextClassLoader();
-                
-                try {
-                    currentThread.setContextClassLoader(gameClassLoader);
-                    
-                    System.out.println("DEBUG: Configurando listener para " + nombreOriginal);
-                    
-                    Method setListenerMethod = null;
-                    Class<?> listenerParamType = null;
-                    
-                    for (Method m : claseJuego.getMethods()) {
-                        if (m.getName().equals("setGameListener") && m.getParameterCount() == 1) {
-                            setListenerMethod = m;
-                            listenerParamType = m.getParameterTypes()[0];
-                            break;
-                        }
-                    }
-                    
-                    if (setListenerMethod == null) {
-                        System.err.println("WARN: No se encontró método setGameListener en " + nombreOriginal);
-                        return;
-                    }
-                    
-                    System.out.println("DEBUG: Creando proxy listener para " + listenerParamType.getName());
-                    
-                    final Method finalSetListenerMethod = setListenerMethod;
-                    
-                    Object listenerProxy = java.lang.reflect.Proxy.newProxyInstance(
-                        gameClassLoader,
-                        new Class<?>[]{listenerParamType},
-                        (proxy, method, args) -> {
-                            System.out.println("DEBUG: Método invocado en listener: " + method.getName());
-                            
-                            if (method.getName().equals("onGameFinished") && args != null && args.length > 0) {
-                                try {
-                                    Object statExterno = args[0];
-                                    Class<?> statClass = statExterno.getClass();
-                                    
-                                    Method getClave = statClass.getMethod("getClave");
-                                    Method getNombre = statClass.getMethod("getNombre");
-                                    Method getValor = statClass.getMethod("getValor");
-                                    
-                                    String clave = (String) getClave.invoke(statExterno);
-                                    String nombre = (String) getNombre.invoke(statExterno);
-                                    
-                                    Object valorObj = getValor.invoke(statExterno);
-                                    int valor = 0;
-                                    if (valorObj instanceof Integer) {
-                                        valor = (Integer) valorObj;
-                                    } else if (valorObj instanceof String) {
-                                        valor = Integer.parseInt((String) valorObj);
-                                    }
-                                    
-                                    model.Stat statInterno = new model.Stat(clave, nombre, valor);
-                                    System.out.println("DEBUG: Notificando fin de juego con stats: " + valor);
-                                    listener.onGameFinished(statInterno);
-                                } catch (Exception e) {
-                                    System.err.println("ERROR en listener proxy: " + e.getMessage());
-                                    e.printStackTrace();
-                                }
-                            }
-                            return null;
-                        }
-                    );
-                    
-                    finalSetListenerMethod.invoke(instanciaActual, listenerProxy);
-                    System.out.println("DEBUG: Listener configurado correctamente para " + nombreOriginal);
-                    
-                } catch (Exception e) {
-                    System.err.println("ERROR al configurar listener para " + nombreOriginal + ": " + e.getMessage());
-                    e.printStackTrace();
-                } finally {
-                    currentThread.setContextClassLoader(originalClassLoader);
-                }
-            }
-            
-            @Override
-            public String toString() {
-                return nombreOriginal;
-            }
-        };
+    /**
+     * Crea el adaptador de un juego externo. Los métodos del plugin se
+     * resuelven aquí, una vez por clase, y no en cada llamada.
+     */
+    private AdaptadorPlugin crearAdaptador(Object juegoExterno, Class<?> claseJuego, String nombreOriginal,
+                                           EjecutorPlugin ejecutor) {
+        return new AdaptadorPlugin(juegoExterno, MetodosPlugin.de(claseJuego), nombreOriginal,
+                claseJuego.getName(), ejecutor);
     }
 
-    private Object instanciarJuego(Class<?> clase) {
+    /**
+     * Crea la instancia de prueba en el ejecutor del JAR: si el plugin se
+     * bloquea al inicializarse, la carga sigue tras el tiempo máximo.
+     * Lo que asigna en ese hilo se anota en {@code perfil}, si se puede medir.
+     */
+    private Object instanciarJuego(Class<?> clase, EjecutorPlugin ejecutor, PerfilClase perfil) {
+        long[] asignados = {-1};
         try {
-            try {
-                Method getInstance = clase.getMethod("getInstance");
-                return getInstance.invoke(null);
-            } catch (NoSuchMethodException e) {
-                return clase.getDeclaredConstructor().newInstance();
-            }
-        } catch (Exception e) {
+            Object instancia = ejecutor.ejecutar("crear instancia", () -> {
+                long inicio = PerfilJar.asignadosHilo();
+                Object nueva = MetodosPlugin.de(clase).nuevaInstancia();
+                long fin = PerfilJar.asignadosHilo();
+                if (inicio >= 0 && fin >= 0) {
+                    asignados[0] = fin - inicio;
+                }
+                return nueva;
+            });
+            // Solo se lee si la llamada terminó: get() del ejecutor ordena la escritura
+            perfil.bytesAsignados = asignados[0];
+            return instancia;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             return null;
         }
     }
 
-    public File getPluginsDir() {
+    public synchronized File getPluginsDir() {
         return pluginsDir;
     }
 
-    public void setPluginsDir(File pluginsDir) {
+    public synchronized void setPluginsDir(File pluginsDir) {
         this.pluginsDir = pluginsDir;
+        if (!pluginsDir.exists()) {
+            pluginsDir.mkdirs();
+        }
+        indice = new IndicePlugins(new File(pluginsDir, IndicePlugins.NOMBRE_ARCHIVO));
+        registro.vaciar();
+        descargarTodos();
     }
 }
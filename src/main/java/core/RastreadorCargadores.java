@@ -0,0 +1,109 @@
+package core;
+
+import java.lang.ref.Cleaner;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sigue los ClassLoaders de plugins ya descargados hasta que el recolector
+ * los libera. Un ClassLoader que sigue vivo mucho después de descargarse
+ * tiene alguna referencia fuerte pendiente (un hilo, una ventana o un
+ * singleton del plugin) y retiene todas sus clases en Metaspace.
+ *
+ * No guarda ninguna referencia fuerte al ClassLoader: el {@link Cleaner}
+ * avisa cuando se vuelve inalcanzable y entonces se quita de la lista.
+ */
+final class RastreadorCargadores {
+    /** Tiempo tras el cual un ClassLoader aún vivo se informa como no descargado. */
+    static final long PLAZO_POR_DEFECTO_MS = 30_000;
+
+    private static final Cleaner LIMPIADOR = Cleaner.create();
+
+    /**
+     * ClassLoader descargado que todavía no se liberó.
+     */
+    private static final class Pendiente {
+        final String nombreJar;
+        final long descargadoEn;
+
+        Pendiente(String nombreJar, long descargadoEn) {
+            this.nombreJar = nombreJar;
+            this.descargadoEn = descargadoEn;
+        }
+    }
+
+    private final Map<Long, Pendiente> pendientes = new ConcurrentHashMap<>();
+    private final AtomicLong identificadores = new AtomicLong();
+    private final AtomicLong liberados = new AtomicLong();
+    private final long plazoMs;
+
+    RastreadorCargadores(long plazoMs) {
+        this.plazoMs = plazoMs;
+    }
+
+    /**
+     * Empieza a seguir un ClassLoader recién descargado.
+     */
+    void seguir(ClassLoader classLoader, String nombreJar) {
+        long id = identificadores.incrementAndGet();
+        long descargadoEn = System.nanoTime();
+        pendientes.put(id, new Pendiente(nombreJar, descargadoEn));
+        // La acción no debe referenciar al ClassLoader, o nunca se liberaría
+        LIMPIADOR.register(classLoader, () -> liberado(id));
+    }
+
+    private void liberado(long id) {
+        Pendiente pendiente = pendientes.remove(id);
+        if (pendiente != null) {
+            liberados.incrementAndGet();
+            System.out.println("ClassLoader de " + pendiente.nombreJar + " liberado tras "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pendiente.descargadoEn) + " ms");
+        }
+    }
+
+    /**
+     * JARs cuyo ClassLoader sigue en memoria más allá del plazo.
+     *
+     * @return Descripciones como {@code "Juego.jar (hace 45 s)"}.
+     */
+    List<String> sinLiberar() {
+        long ahora = System.nanoTime();
+        List<String> resultado = new ArrayList<>();
+        for (Pendiente pendiente : pendientes.values()) {
+            long transcurrido = TimeUnit.NANOSECONDS.toMillis(ahora - pendiente.descargadoEn);
+            if (transcurrido >= plazoMs) {
+                resultado.add(pendiente.nombreJar + " (hace " + transcurrido / 1000 + " s)");
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Imprime una advertencia si hay ClassLoaders que no se liberaron a tiempo.
+     */
+    void informar() {
+        List<String> retenidos = sinLiberar();
+        if (!retenidos.isEmpty()) {
+            System.err.println("ADVERTENCIA: " + retenidos.size()
+                    + " ClassLoader(s) de plugins siguen en memoria después de descargarse: " + retenidos);
+        }
+    }
+
+    /**
+     * ClassLoaders descargados que ya liberó el recolector.
+     */
+    long getLiberados() {
+        return liberados.get();
+    }
+
+    /**
+     * ClassLoaders descargados que aún no se liberaron, dentro o fuera del plazo.
+     */
+    int getPendientes() {
+        return pendientes.size();
+    }
+}
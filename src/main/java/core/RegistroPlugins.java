@@ -0,0 +1,131 @@
+package core;
+
+import model.IGameFunction;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Registro de los juegos cargados desde plugins, con un {@link DescriptorPlugin}
+ * por juego, indexado por juego (por identidad), por nombre y por JAR.
+ *
+ * Cada cambio arma una instantánea nueva e inmutable y la publica de forma
+ * atómica, así que las consultas no bloquean, cuestan O(1) y nunca ven un
+ * JAR a medio reemplazar. Los cambios son raros (uno por JAR cargado o
+ * descargado), por lo que copiar los índices en cada uno es barato.
+ */
+public final class RegistroPlugins {
+    /**
+     * Estado publicado del registro. Nunca se modifica una vez creado.
+     */
+    private static final class Instantanea {
+        static final Instantanea VACIA = new Instantanea(Collections.emptyMap());
+
+        /** Descriptores por ruta absoluta de JAR, en orden de JAR y de carga. */
+        final Map<String, List<DescriptorPlugin>> porJar;
+        final Map<IGameFunction, DescriptorPlugin> porJuego = new IdentityHashMap<>();
+        final Map<String, DescriptorPlugin> porNombre = new HashMap<>();
+        final List<DescriptorPlugin> todos = new ArrayList<>();
+
+        Instantanea(Map<String, List<DescriptorPlugin>> porJar) {
+            this.porJar = porJar;
+            for (List<DescriptorPlugin> descriptores : porJar.values()) {
+                for (DescriptorPlugin descriptor : descriptores) {
+                    todos.add(descriptor);
+                    porJuego.put(descriptor.getJuego(), descriptor);
+                    // Con nombres repetidos gana el primer JAR en orden
+                    porNombre.putIfAbsent(descriptor.getNombre(), descriptor);
+                }
+            }
+        }
+    }
+
+    private final AtomicReference<Instantanea> actual = new AtomicReference<>(Instantanea.VACIA);
+
+    RegistroPlugins() {
+    }
+
+    /**
+     * Descriptor de un juego cargado, o null si no es un plugin o ya se descargó.
+     */
+    public DescriptorPlugin buscar(IGameFunction juego) {
+        return actual.get().porJuego.get(juego);
+    }
+
+    /**
+     * Descriptor del juego con ese nombre visible, o null si no hay ninguno.
+     */
+    public DescriptorPlugin buscarPorNombre(String nombre) {
+        return actual.get().porNombre.get(nombre);
+    }
+
+    /**
+     * Juegos cargados desde un JAR; vacío si no hay ninguno.
+     */
+    public List<DescriptorPlugin> buscarPorJar(File archivoJar) {
+        List<DescriptorPlugin> descriptores = actual.get().porJar.get(archivoJar.getAbsolutePath());
+        return descriptores == null ? Collections.emptyList() : descriptores;
+    }
+
+    /**
+     * Todos los juegos cargados, por nombre de JAR y orden de carga.
+     */
+    public List<DescriptorPlugin> getDescriptores() {
+        return Collections.unmodifiableList(actual.get().todos);
+    }
+
+    public int getCantidad() {
+        return actual.get().todos.size();
+    }
+
+    /**
+     * Reemplaza todo el registro, por ejemplo tras recargar el directorio.
+     *
+     * @param porJar Descriptores por JAR, en el orden en que deben listarse.
+     */
+    void reemplazarTodo(Map<File, List<DescriptorPlugin>> porJar) {
+        Map<String, List<DescriptorPlugin>> copia = new LinkedHashMap<>();
+        for (Map.Entry<File, List<DescriptorPlugin>> e : porJar.entrySet()) {
+            if (!e.getValue().isEmpty()) {
+                copia.put(e.getKey().getAbsolutePath(), List.copyOf(e.getValue()));
+            }
+        }
+        actual.set(new Instantanea(Collections.unmodifiableMap(copia)));
+    }
+
+    /**
+     * Reemplaza los juegos de un único JAR, dejando los demás como están.
+     *
+     * @param descriptores Juegos nuevos del JAR; vacío si se descargó.
+     */
+    void reemplazarJar(File archivoJar, List<DescriptorPlugin> descriptores) {
+        String clave = archivoJar.getAbsolutePath();
+        List<DescriptorPlugin> copiaDescriptores = List.copyOf(descriptores);
+        actual.updateAndGet(anterior -> {
+            Map<String, List<DescriptorPlugin>> copia = new LinkedHashMap<>(anterior.porJar);
+            copia.remove(clave);
+            if (!copiaDescriptores.isEmpty()) {
+                copia.put(clave, copiaDescriptores);
+            }
+            // Mantener el orden por nombre de JAR, como en una carga completa
+            List<Map.Entry<String, List<DescriptorPlugin>>> entradas = new ArrayList<>(copia.entrySet());
+            entradas.sort(Map.Entry.comparingByKey((a, b) -> new File(a).getName().compareTo(new File(b).getName())));
+            Map<String, List<DescriptorPlugin>> ordenado = new LinkedHashMap<>();
+            for (Map.Entry<String, List<DescriptorPlugin>> e : entradas) {
+                ordenado.put(e.getKey(), e.getValue());
+            }
+            return new Instantanea(Collections.unmodifiableMap(ordenado));
+        });
+    }
+
+    void vaciar() {
+        actual.set(Instantanea.VACIA);
+    }
+}
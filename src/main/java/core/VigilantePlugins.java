@@ -0,0 +1,178 @@
+package core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vigila el directorio de plugins y avisa de cada JAR agregado, modificado o
+ * borrado, para cargarlo o descargarlo sin recargar los demás.
+ *
+ * Copiar un JAR genera varios eventos mientras el archivo se escribe. Un JAR
+ * solo se avisa cuando pasó el tiempo de espera sin eventos nuevos y su tamaño
+ * y fecha siguen iguales a los del último evento; así no se abre un JAR a
+ * medio copiar. Todos los avisos se hacen desde el hilo vigilante, de a uno.
+ */
+final class VigilantePlugins implements AutoCloseable {
+    static final long ESPERA_POR_DEFECTO_MS = 500;
+
+    /**
+     * Destino de los avisos. Se invoca siempre desde el hilo vigilante.
+     */
+    interface Destino {
+        /**
+         * Un JAR terminó de cambiar: es nuevo, se modificó o se borró.
+         */
+        void jarCambiado(File archivoJar);
+
+        /**
+         * Se perdieron eventos (desborde de la cola del sistema operativo):
+         * hay que revisar el directorio completo.
+         */
+        void directorioCambiado();
+    }
+
+    /**
+     * JAR con eventos recientes, aún no avisado.
+     */
+    private static final class Pendiente {
+        long ultimoEvento;
+        long tamano;
+        long modificado;
+    }
+
+    private final Path directorio;
+    private final Destino destino;
+    private final long esperaMs;
+    private final WatchService servicio;
+    private final Map<Path, Pendiente> pendientes = new HashMap<>();
+    private final Thread hilo;
+    private volatile boolean activo = true;
+
+    /**
+     * Empieza a vigilar el directorio en un hilo propio.
+     *
+     * @param esperaMs Tiempo sin eventos tras el cual un JAR se considera completo.
+     * @throws IOException Si el sistema no permite vigilar el directorio.
+     */
+    VigilantePlugins(File directorio, Destino destino, long esperaMs) throws IOException {
+        if (esperaMs <= 0) {
+            throw new IllegalArgumentException("El tiempo de espera debe ser positivo");
+        }
+        this.directorio = directorio.toPath().toAbsolutePath();
+        this.destino = destino;
+        this.esperaMs = esperaMs;
+        this.servicio = this.directorio.getFileSystem().newWatchService();
+        this.directorio.register(servicio, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        hilo = new Thread(this::ejecutar, "plugins-watcher");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private void ejecutar() {
+        while (activo) {
+            WatchKey clave;
+            try {
+                // Sin pendientes no hay nada que temporizar: esperar el próximo evento
+                clave = pendientes.isEmpty()
+                        ? servicio.take()
+                        : servicio.poll(esperaMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            }
+
+            if (clave != null) {
+                for (WatchEvent<?> evento : clave.pollEvents()) {
+                    if (evento.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        pendientes.clear();
+                        avisarDirectorio();
+                        continue;
+                    }
+                    Path nombre = (Path) evento.context();
+                    if (nombre.toString().toLowerCase().endsWith(".jar")) {
+                        registrarEvento(directorio.resolve(nombre));
+                    }
+                }
+                if (!clave.reset()) {
+                    System.err.println("El directorio de plugins ya no se puede vigilar: " + directorio);
+                    break;
+                }
+            }
+            avisarEstables();
+        }
+    }
+
+    private void registrarEvento(Path ruta) {
+        Pendiente pendiente = pendientes.computeIfAbsent(ruta, r -> new Pendiente());
+        File archivo = ruta.toFile();
+        pendiente.ultimoEvento = System.nanoTime();
+        pendiente.tamano = archivo.length();
+        pendiente.modificado = archivo.lastModified();
+    }
+
+    /**
+     * Avisa los JARs que llevan el tiempo de espera sin cambios.
+     */
+    private void avisarEstables() {
+        long ahora = System.nanoTime();
+        Iterator<Map.Entry<Path, Pendiente>> it = pendientes.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Path, Pendiente> e = it.next();
+            Pendiente pendiente = e.getValue();
+            if (TimeUnit.NANOSECONDS.toMillis(ahora - pendiente.ultimoEvento) < esperaMs) continue;
+
+            File archivo = e.getKey().toFile();
+            if (archivo.length() != pendiente.tamano || archivo.lastModified() != pendiente.modificado) {
+                // Siguió cambiando sin generar eventos: esperar otro período completo
+                registrarEvento(e.getKey());
+                continue;
+            }
+            it.remove();
+            try {
+                destino.jarCambiado(archivo);
+            } catch (RuntimeException ex) {
+                System.err.println("Error al actualizar plugin " + archivo.getName() + ": " + ex.getMessage());
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    private void avisarDirectorio() {
+        try {
+            destino.directorioCambiado();
+        } catch (RuntimeException ex) {
+            System.err.println("Error al recargar el directorio de plugins: " + ex.getMessage());
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Deja de vigilar y espera a que termine el aviso en curso, si lo hay.
+     */
+    @Override
+    public void close() {
+        activo = false;
+        try {
+            servicio.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar la vigilancia de plugins: " + e.getMessage());
+        }
+        if (Thread.currentThread() != hilo) {
+            try {
+                hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
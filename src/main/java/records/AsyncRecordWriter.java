@@ -0,0 +1,273 @@
+package records;
+
+import model.Stat;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritor asíncrono de records con confirmación por lotes (group commit).
+ * Los records se encolan en una cola acotada sin tocar el disco y un hilo
+ * dedicado los agrupa por juego y los escribe en lotes, como máximo cada
+ * {@code intervaloMs} milisegundos o al juntar {@code tamanoLote} records.
+ *
+ * Garantías de durabilidad:
+ * <ul>
+ *   <li>Un record aceptado entra en un lote que se escribe a lo sumo un
+ *       intervalo de flush después de encolarlo, más el tiempo de escribir
+ *       ese lote y los anteriores si el disco va atrasado.</li>
+ *   <li>Cuando {@link #flush()} retorna, todo lo registrado antes está escrito.</li>
+ *   <li>{@link #close()} escribe todo lo pendiente antes de terminar el hilo.</li>
+ *   <li>Lo que llega después de {@link #close()} no se escribe: se informa y
+ *       se descarta, sin lanzar excepciones al juego que terminó.</li>
+ * </ul>
+ * Si la cola se llena, el llamador no espera: el juego se marca como
+ * desbordado y en el siguiente lote se escribe su tablero completo, que ya
+ * contiene el record en memoria. Los records de ese juego que sigan en la cola
+ * y ya estén incluidos en el tablero escrito se descartan para no duplicarlos.
+ */
+class AsyncRecordWriter implements AutoCloseable {
+    static final long INTERVALO_POR_DEFECTO_MS = 200;
+    static final int LOTE_POR_DEFECTO = 64;
+    private static final int CAPACIDAD_COLA = 4096;
+
+    /**
+     * Destino de los lotes. Se invoca siempre desde el hilo escritor.
+     */
+    interface Destino {
+        /**
+         * Escribe los resultados nuevos de un juego.
+         *
+         * @param records    Resultados que entraron al tablero.
+         * @param resultados Todos los resultados encolados, incluidos los records.
+         * @return Igual que {@link #escribirCompleto}, si además se escribió el
+         *         tablero completo; -1 en caso contrario.
+         */
+        long escribirLote(String nombreJuego, List<Stat> records, List<Stat> resultados) throws IOException;
+
+        /**
+         * Escribe el tablero completo del juego.
+         *
+         * @return Valor de {@link #ultimaSecuencia()} leído de forma atómica con
+         *         el tablero escrito.
+         */
+        long escribirCompleto(String nombreJuego) throws IOException;
+    }
+
+    private static final class Pendiente {
+        final String nombreJuego;
+        final Stat stat;
+        final boolean esRecord;
+        final long secuencia;
+        final CountDownLatch confirmacion;
+        /** System.nanoTime() al encolarlo; el plazo del lote se cuenta desde el primero. */
+        final long encolado = System.nanoTime();
+
+        Pendiente(String nombreJuego, Stat stat, boolean esRecord, long secuencia, CountDownLatch confirmacion) {
+            this.nombreJuego = nombreJuego;
+            this.stat = stat;
+            this.esRecord = esRecord;
+            this.secuencia = secuencia;
+            this.confirmacion = confirmacion;
+        }
+    }
+
+    private final Destino destino;
+    private final long intervaloMs;
+    private final int tamanoLote;
+    private final BlockingQueue<Pendiente> cola = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+    private final Set<String> desbordados = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> cortes = new HashMap<>();
+    private final AtomicLong secuencias = new AtomicLong();
+    private final Thread hilo;
+    /** Ordena la aceptación de pendientes con el cierre: nada entra en la cola después. */
+    private final Object cierre = new Object();
+    private volatile boolean activo = true;
+
+    AsyncRecordWriter(Destino destino, long intervaloMs, int tamanoLote) {
+        if (intervaloMs <= 0 || tamanoLote <= 0) {
+            throw new IllegalArgumentException("Intervalo y tamaño de lote deben ser positivos");
+        }
+        this.destino = destino;
+        this.intervaloMs = intervaloMs;
+        this.tamanoLote = tamanoLote;
+        hilo = new Thread(this::ejecutar, "records-writer");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Reserva la secuencia de un record nuevo. Debe llamarse con el mismo
+     * bloqueo que protege el tablero del juego, justo al agregar el record.
+     */
+    long reservarSecuencia() {
+        return secuencias.incrementAndGet();
+    }
+
+    /**
+     * Encola un resultado para escribirlo. Nunca bloquea al llamador.
+     *
+     * @param esRecord  true si el resultado entró al tablero; false si solo
+     *                  debe guardarse en el historial completo.
+     * @param secuencia Valor obtenido de {@link #reservarSecuencia()}.
+     */
+    void encolar(String nombreJuego, Stat stat, boolean esRecord, long secuencia) {
+        synchronized (cierre) {
+            if (activo) {
+                if (!cola.offer(new Pendiente(nombreJuego, stat, esRecord, secuencia, null))) {
+                    desbordados.add(nombreJuego);
+                }
+                return;
+            }
+        }
+        System.err.println("Escritor de records cerrado: se descarta el resultado " + stat.getValor()
+                + " del juego " + nombreJuego);
+    }
+
+    /**
+     * Pide escribir el tablero completo de un juego en el siguiente lote, por
+     * ejemplo tras modificarlo en bloque. Los resultados encolados que ya
+     * estén incluidos en ese tablero se descartan.
+     */
+    void encolarCompleto(String nombreJuego) {
+        synchronized (cierre) {
+            if (activo) {
+                desbordados.add(nombreJuego);
+                return;
+            }
+        }
+        System.err.println("Escritor de records cerrado: no se guarda el tablero del juego " + nombreJuego);
+    }
+
+    /**
+     * Última secuencia reservada.
+     */
+    long ultimaSecuencia() {
+        return secuencias.get();
+    }
+
+    /**
+     * Espera a que todo lo encolado hasta ahora esté escrito. Durante o
+     * después de {@link #close()}, espera a que termine la escritura final.
+     */
+    void flush() {
+        Pendiente marca = new Pendiente(null, null, false, 0, new CountDownLatch(1));
+        try {
+            boolean encolada = false;
+            while (!encolada) {
+                synchronized (cierre) {
+                    if (!activo) break;
+                    encolada = cola.offer(marca);
+                }
+                if (!encolada) {
+                    // Cola llena: el hilo escritor la está vaciando
+                    Thread.sleep(1);
+                }
+            }
+            if (encolada) {
+                marca.confirmacion.await();
+            } else {
+                hilo.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deja de aceptar pendientes, escribe todos los que ya estaban y detiene
+     * el hilo escritor.
+     */
+    @Override
+    public void close() {
+        synchronized (cierre) {
+            activo = false;
+        }
+        // Sin interrupt(): interrumpir al hilo cerraría los canales de archivo en uso
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ejecutar() {
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        // Tras el cierre ya no entra nada: se vacía la cola y se termina
+        while (activo || !cola.isEmpty() || !desbordados.isEmpty()) {
+            try {
+                Pendiente primero = cola.poll(activo ? intervaloMs : 0, TimeUnit.MILLISECONDS);
+                if (primero != null) {
+                    lote.add(primero);
+                    // El plazo corre desde que se encoló el primero, no desde que se sacó de la cola
+                    juntarLote(lote, primero.encolado + TimeUnit.MILLISECONDS.toNanos(intervaloMs));
+                }
+            } catch (InterruptedException e) {
+                // No se espera ninguna interrupción: escribir lo que haya y seguir
+                cola.drainTo(lote);
+            }
+            escribir(lote);
+            lote.clear();
+        }
+    }
+
+    /**
+     * Completa el lote hasta su tamaño máximo, el plazo o una marca de flush.
+     */
+    private void juntarLote(List<Pendiente> lote, long plazo) throws InterruptedException {
+        while (lote.size() < tamanoLote && lote.get(lote.size() - 1).confirmacion == null) {
+            long restante = plazo - System.nanoTime();
+            if (restante <= 0) return;
+            Pendiente siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) return;
+            lote.add(siguiente);
+        }
+    }
+
+    private void escribir(List<Pendiente> lote) {
+        Map<String, List<Pendiente>> porJuego = new LinkedHashMap<>();
+        List<CountDownLatch> confirmaciones = new ArrayList<>();
+        for (Pendiente pendiente : lote) {
+            if (pendiente.confirmacion != null) {
+                confirmaciones.add(pendiente.confirmacion);
+            } else if (pendiente.secuencia > cortes.getOrDefault(pendiente.nombreJuego, 0L)) {
+                porJuego.computeIfAbsent(pendiente.nombreJuego, k -> new ArrayList<>()).add(pendiente);
+            }
+        }
+
+        for (String nombreJuego : new ArrayList<>(desbordados)) {
+            desbordados.remove(nombreJuego);
+            porJuego.remove(nombreJuego);
+            try {
+                cortes.put(nombreJuego, destino.escribirCompleto(nombreJuego));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error al guardar records del juego " + nombreJuego + ": " + e.getMessage());
+            }
+        }
+
+        for (Map.Entry<String, List<Pendiente>> entrada : porJuego.entrySet()) {
+            List<Stat> records = new ArrayList<>();
+            List<Stat> resultados = new ArrayList<>(entrada.getValue().size());
+            for (Pendiente pendiente : entrada.getValue()) {
+                resultados.add(pendiente.stat);
+                if (pendiente.esRecord) {
+                    records.add(pendiente.stat);
+                }
+            }
+            try {
+                long corte = destino.escribirLote(entrada.getKey(), records, resultados);
+                if (corte >= 0) {
+                    cortes.put(entrada.getKey(), corte);
+                }
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Error al guardar records del juego " + entrada.getKey() + ": " + e.getMessage());
+            }
+        }
+
+        for (CountDownLatch confirmacion : confirmaciones) {
+            confirmacion.countDown();
+        }
+    }
+}
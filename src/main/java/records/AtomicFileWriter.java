@@ -0,0 +1,153 @@
+package records;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Escritura de archivos resistente a caídas.
+ * Un archivo se reemplaza escribiendo primero un temporal, forzándolo a
+ * disco y renombrándolo de forma atómica sobre el original; opcionalmente se
+ * fuerza también el directorio para que el renombrado sobreviva a un corte
+ * de energía. En cualquier instante el archivo es la versión anterior
+ * completa o la nueva completa, nunca una mezcla.
+ *
+ * También ofrece la pasada de recuperación que se ejecuta al cargar un juego:
+ * borra temporales abandonados y recorta registros incompletos al final de
+ * los archivos de solo-anexado.
+ */
+class AtomicFileWriter {
+    static final String EXT_TEMPORAL = ".tmp";
+
+    /**
+     * Contenido a escribir en el archivo temporal.
+     */
+    interface Contenido {
+        void escribir(OutputStream out) throws IOException;
+    }
+
+    private volatile boolean forzarArchivos = true;
+    private volatile boolean forzarDirectorio = true;
+
+    /**
+     * Configura cuándo se fuerzan los datos a disco.
+     *
+     * @param archivos   true para hacer fsync de cada archivo escrito o anexado.
+     * @param directorio true para hacer fsync del directorio tras cada renombrado.
+     */
+    void configurar(boolean archivos, boolean directorio) {
+        this.forzarArchivos = archivos;
+        this.forzarDirectorio = directorio;
+    }
+
+    /**
+     * Reemplaza atómicamente el archivo {@code destino} por el contenido dado.
+     */
+    void escribir(Path destino, Contenido contenido) throws IOException {
+        Path temporal = destino.resolveSibling(destino.getFileName() + EXT_TEMPORAL);
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(canal));
+            contenido.escribir(out);
+            out.flush();
+            forzar(canal);
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (forzarDirectorio) {
+            sincronizarDirectorio(destino.toAbsolutePath().getParent());
+        }
+    }
+
+    /**
+     * Fuerza a disco lo escrito en un canal, si la sincronización está activada.
+     */
+    void forzar(FileChannel canal) throws IOException {
+        if (forzarArchivos) {
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Pasada de recuperación de un juego: borra los temporales que dejó una
+     * escritura interrumpida (el original sigue intacto, porque el renombrado
+     * es el punto de confirmación) y recorta la línea incompleta final de los
+     * archivos de texto, que solo puede venir de un anexado interrumpido.
+     *
+     * @param directorio  Directorio de records.
+     * @param nombreJuego Nombre del juego.
+     */
+    void recuperar(File directorio, String nombreJuego) {
+        File[] temporales = directorio.listFiles((d, name) ->
+                name.startsWith(nombreJuego + ".") && name.endsWith(EXT_TEMPORAL)
+                        && name.indexOf('.', nombreJuego.length() + 1) == name.length() - EXT_TEMPORAL.length());
+        if (temporales != null) {
+            for (File temporal : temporales) {
+                System.err.println("Recuperación: descartando escritura interrumpida " + temporal.getName());
+                temporal.delete();
+            }
+        }
+
+        for (String extension : new String[]{RecordsJournal.EXT_SNAPSHOT, RecordsJournal.EXT_JOURNAL}) {
+            File archivo = new File(directorio, nombreJuego + extension);
+            try {
+                recortarLineaIncompleta(archivo.toPath());
+            } catch (IOException e) {
+                System.err.println("Error al reparar " + archivo.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Si el archivo no termina en salto de línea, lo recorta hasta el último.
+     */
+    static void recortarLineaIncompleta(Path archivo) throws IOException {
+        if (!Files.exists(archivo)) return;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long tamano = canal.size();
+            if (tamano == 0) return;
+
+            ByteBuffer byteBuffer = ByteBuffer.allocate(1);
+            long posicion = tamano - 1;
+            canal.read(byteBuffer, posicion);
+            if (byteBuffer.get(0) == '\n') return;
+
+            while (posicion > 0) {
+                byteBuffer.clear();
+                canal.read(byteBuffer, posicion - 1);
+                if (byteBuffer.get(0) == '\n') break;
+                posicion--;
+            }
+            System.err.println("Recuperación: recortando línea incompleta al final de " + archivo.getFileName());
+            canal.truncate(posicion);
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Recorta el archivo a un múltiplo del tamaño de registro indicado.
+     */
+    static void recortarRegistroIncompleto(Path archivo, int tamanoRegistro) throws IOException {
+        if (!Files.exists(archivo)) return;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            long tamano = canal.size();
+            if (tamano % tamanoRegistro == 0) return;
+            System.err.println("Recuperación: recortando registro incompleto al final de " + archivo.getFileName());
+            canal.truncate(tamano - tamano % tamanoRegistro);
+            canal.force(false);
+        }
+    }
+
+    /**
+     * Hace fsync del directorio. Algunos sistemas (Windows) no permiten abrir
+     * un directorio como canal; en ese caso se omite.
+     */
+    private static void sincronizarDirectorio(Path directorio) {
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // No soportado en esta plataforma
+        }
+    }
+}
@@ -0,0 +1,695 @@
+package records;
+
+import model.Stat;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Almacenamiento binario de records con slots de ancho fijo.
+ * Cada juego tiene un archivo {@code <juego>.rec} con este formato:
+ * <pre>
+ *   cabecera (32 bytes): magia, versión, cantidad de cadenas, bytes de cadenas,
+ *                        cantidad de slots, generación, checksum
+ *   tabla de cadenas:    [longitud u16][UTF-8] por cada clave/nombre distinto
+ *   slots (16 bytes):    [índice clave][índice nombre][valor][verificación]
+ * </pre>
+ * y, si desde la última compactación aparecieron claves o nombres nuevos, un
+ * archivo {@code <juego>.cad} de solo-anexado con esas cadenas:
+ * <pre>
+ *   cabecera (8 bytes):  magia, generación
+ *   cadenas:             [longitud u16][UTF-8], numeradas a continuación de
+ *                        las de la tabla del .rec
+ * </pre>
+ * Cargar un juego es un único mapeo de solo lectura de cada archivo y un
+ * recorrido de slots de ancho fijo, sin parsear texto ni copiarlo al heap. Las claves y nombres se comparten desde la
+ * tabla de cadenas, así que millones de resultados no duplican cadenas.
+ *
+ * Anexar un resultado escribe un slot al final y actualiza la cabecera; el
+ * checksum (FNV-1a de 64 bits sobre tabla y slots) se extiende sin releer el
+ * archivo. Un jugador nuevo agrega además su nombre al .cad, sin mover los
+ * slots existentes. Un slot escrito sin su cabecera simplemente se ignora al
+ * cargar, y el siguiente anexado lo sobrescribe.
+ *
+ * Compactar reescribe el .rec con todas las cadenas en su tabla y una
+ * generación nueva, y borra el .cad; un .cad de otra generación quedó de una
+ * compactación interrumpida y se descarta.
+ *
+ * Cada mapeo se hace en una {@link Arena} confinada que se cierra en cuanto
+ * se termina de leer: así se libera en ese momento y no cuando pase el
+ * recolector, y en Windows el archivo se puede renombrar o reemplazar
+ * enseguida. Si el sistema de archivos no permite mapear, se lee a memoria.
+ * Un archivo dañado (checksum inválido, truncado) se
+ * renombra a {@code .corrupto} y se reemplaza por los slots que se pudieron
+ * recuperar, para que el juego siga guardando records. La verificación de
+ * cada slot (FNV-1a de sus primeros 12 bytes) indica hasta dónde llegan los
+ * slots sanos; en la versión 1 ese campo era reservado y vale 0.
+ */
+class BinaryRecordStore implements RecordStore {
+    static final String EXTENSION = ".rec";
+    static final String EXT_CADENAS = ".cad";
+    static final String EXT_CORRUPTO = ".corrupto";
+    private static final int MAGIA = 0x474D5242; // "GMRB"
+    private static final int MAGIA_CADENAS = 0x474D5243; // "GMRC"
+    /**
+     * La versión 1 tiene el mismo formato, con la generación en 0, sin .cad y
+     * sin verificación por slot. Sigue en versión 1 hasta que se compacta.
+     */
+    private static final int VERSION = 2;
+    private static final int TAMANO_CABECERA = 32;
+    private static final int TAMANO_CABECERA_CADENAS = 8;
+    private static final int TAMANO_SLOT = 16;
+    private static final int UMBRAL_COMPACTACION = 4096;
+    private static final long FNV_INICIAL = 0xcbf29ce484222325L;
+    private static final long FNV_PRIMO = 0x100000001b3L;
+
+    /**
+     * Estado de un archivo leído o abierto para anexar.
+     */
+    private static final class Archivo {
+        FileChannel canal;
+        /** null hasta que se abre o se crea el .cad. */
+        FileChannel canalCadenas;
+        int version = VERSION;
+        final Map<String, Integer> indices = new HashMap<>();
+        final List<String> cadenas = new ArrayList<>();
+        /** Cadenas de la tabla del .rec; las siguientes vienen del .cad. */
+        int cantidadIncluidas;
+        int bytesCadenas;
+        int cantidadSlots;
+        int generacion;
+        long checksum = FNV_INICIAL;
+        /** Fin de la última cadena completa del .cad. */
+        long finCadenas;
+        int pendientes;
+        /** Contenido del .rec mapeado, solo mientras se carga; ver {@link #liberar}. */
+        ByteBuffer datos;
+        /** Arena del mapeo de {@link #datos}. */
+        Arena arena;
+    }
+
+    private final File directorio;
+    private final AtomicFileWriter escritorAtomico;
+    private final Map<String, Archivo> abiertos = new HashMap<>();
+
+    BinaryRecordStore(File directorio, AtomicFileWriter escritorAtomico) {
+        this.directorio = directorio;
+        this.escritorAtomico = escritorAtomico;
+    }
+
+    @Override
+    public synchronized void cargar(String nombreJuego, Destino destino) throws IOException {
+        File archivo = archivo(nombreJuego);
+        if (!archivo.exists()) return;
+
+        Archivo estado = leerValido(nombreJuego);
+        try {
+            ByteBuffer datos = estado.datos;
+            String[] tabla = estado.cadenas.toArray(new String[0]);
+            int inicioSlots = TAMANO_CABECERA + estado.bytesCadenas;
+            for (int i = 0; i < estado.cantidadSlots; i++) {
+                int posicion = inicioSlots + i * TAMANO_SLOT;
+                int clave = datos.getInt(posicion);
+                int nombre = datos.getInt(posicion + 4);
+                if (clave < 0 || clave >= tabla.length || nombre < 0 || nombre >= tabla.length) {
+                    System.err.println("Slot inválido en archivo " + archivo.getName() + ": " + i);
+                    continue;
+                }
+                destino.aceptar(tabla[clave], tabla[nombre], datos.getInt(posicion + 8));
+            }
+        } finally {
+            liberar(estado);
+        }
+    }
+
+    @Override
+    public synchronized void anexarLote(String nombreJuego, List<Stat> stats) throws IOException {
+        Archivo estado = abrir(nombreJuego);
+        try {
+            List<String> nuevas = new ArrayList<>();
+            for (Stat stat : stats) {
+                agregarCadena(estado, stat.getClave(), nuevas);
+                agregarCadena(estado, stat.getNombre(), nuevas);
+            }
+            if (!nuevas.isEmpty()) {
+                anexarCadenas(nombreJuego, estado, nuevas);
+            }
+
+            ByteBuffer slots = ByteBuffer.allocate(stats.size() * TAMANO_SLOT);
+            for (Stat stat : stats) {
+                escribirSlot(slots, estado.indices.get(stat.getClave()), estado.indices.get(stat.getNombre()),
+                        stat.getValor());
+            }
+            slots.flip();
+            long checksum = fnv(estado.checksum, slots);
+
+            long posicion = TAMANO_CABECERA + estado.bytesCadenas + (long) estado.cantidadSlots * TAMANO_SLOT;
+            while (slots.hasRemaining()) {
+                posicion += estado.canal.write(slots, posicion);
+            }
+            // Las cadenas y los slots deben estar en disco antes que la cabecera que los declara
+            escritorAtomico.forzar(estado.canal);
+            estado.checksum = checksum;
+            estado.cantidadSlots += stats.size();
+            estado.pendientes += stats.size();
+            escribirCabecera(estado);
+            escritorAtomico.forzar(estado.canal);
+        } catch (IOException | RuntimeException e) {
+            // El estado en memoria puede no coincidir con el disco: se relee en el próximo anexado
+            cerrarArchivo(nombreJuego);
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized boolean necesitaCompactar(String nombreJuego) {
+        Archivo estado = abiertos.get(nombreJuego);
+        return estado != null && estado.pendientes >= UMBRAL_COMPACTACION;
+    }
+
+    @Override
+    public synchronized boolean tienePendientes(String nombreJuego) {
+        Archivo estado = abiertos.get(nombreJuego);
+        return estado != null && estado.pendientes > 0;
+    }
+
+    /**
+     * Reemplaza el archivo por uno nuevo con los records dados, con escritura
+     * atómica, y descarta el .cad: sus cadenas pasan a la tabla del archivo.
+     */
+    @Override
+    public synchronized void compactar(String nombreJuego, List<Stat> mejores) throws IOException {
+        Archivo anterior = abiertos.get(nombreJuego);
+        Archivo estado = new Archivo();
+        for (Stat stat : mejores) {
+            internar(estado, stat.getClave());
+            internar(estado, stat.getNombre());
+        }
+        estado.cantidadIncluidas = estado.cadenas.size();
+        estado.generacion = nuevaGeneracion(anterior == null ? 0 : anterior.generacion);
+
+        ByteBuffer cuerpo = ByteBuffer.allocate(estado.bytesCadenas + mejores.size() * TAMANO_SLOT);
+        for (String cadena : estado.cadenas) {
+            byte[] bytes = cadena.getBytes(StandardCharsets.UTF_8);
+            cuerpo.putShort((short) bytes.length);
+            cuerpo.put(bytes);
+        }
+        for (Stat stat : mejores) {
+            escribirSlot(cuerpo, estado.indices.get(stat.getClave()), estado.indices.get(stat.getNombre()),
+                    stat.getValor());
+        }
+        cuerpo.flip();
+        estado.cantidadSlots = mejores.size();
+        estado.checksum = fnv(FNV_INICIAL, cuerpo);
+
+        cerrarArchivo(nombreJuego);
+        ByteBuffer cabecera = cabecera(estado);
+        escritorAtomico.escribir(archivo(nombreJuego).toPath(), out -> {
+            out.write(cabecera.array(), 0, cabecera.limit());
+            out.write(cuerpo.array(), 0, cuerpo.limit());
+        });
+        // Si se corta aquí, el .cad queda con la generación anterior y se descarta al leer
+        Files.deleteIfExists(archivoCadenas(nombreJuego).toPath());
+    }
+
+    @Override
+    public Set<String> juegosAlmacenados() {
+        Set<String> juegos = new TreeSet<>();
+        File[] archivos = directorio.listFiles((d, name) -> name.endsWith(EXTENSION));
+        if (archivos != null) {
+            for (File archivo : archivos) {
+                String nombre = archivo.getName();
+                juegos.add(nombre.substring(0, nombre.length() - EXTENSION.length()));
+            }
+        }
+        return juegos;
+    }
+
+    @Override
+    public synchronized void eliminar(String nombreJuego) {
+        cerrarArchivo(nombreJuego);
+        archivo(nombreJuego).delete();
+        archivoCadenas(nombreJuego).delete();
+    }
+
+    @Override
+    public synchronized void cerrar() {
+        for (String nombreJuego : new ArrayList<>(abiertos.keySet())) {
+            cerrarArchivo(nombreJuego);
+        }
+    }
+
+    /**
+     * Valida los archivos del juego y, si están dañados, los reemplaza por lo
+     * que se pueda recuperar. Recorta además una cadena incompleta al final
+     * del .cad, que solo puede venir de un anexado interrumpido.
+     */
+    @Override
+    public synchronized void recuperar(String nombreJuego) throws IOException {
+        if (!archivo(nombreJuego).exists()) return;
+        Archivo estado = leer(nombreJuego);
+        if (estado == null) {
+            reparar(nombreJuego);
+            return;
+        }
+        // Con el mapeo liberado el .cad se puede recortar
+        liberar(estado);
+        File cadenas = archivoCadenas(nombreJuego);
+        if (cadenas.exists() && cadenas.length() > estado.finCadenas && !abiertos.containsKey(nombreJuego)) {
+            try (FileChannel canal = FileChannel.open(cadenas.toPath(), StandardOpenOption.WRITE)) {
+                System.err.println("Recuperación: recortando cadena incompleta al final de " + cadenas.getName());
+                canal.truncate(estado.finCadenas);
+                canal.force(false);
+            }
+        }
+    }
+
+    /**
+     * Importa los records de otro almacenamiento (por ejemplo, los archivos de texto).
+     *
+     * @param nombreJuego Nombre del juego.
+     * @param origen      Almacenamiento del que se leen los records.
+     */
+    synchronized void importar(String nombreJuego, RecordStore origen) throws IOException {
+        List<Stat> records = new ArrayList<>();
+        origen.cargar(nombreJuego, (c, n, v) -> records.add(new Stat(c, n, v)));
+        compactar(nombreJuego, records);
+    }
+
+    /**
+     * Abre el archivo del juego para anexar, creándolo vacío si no existe.
+     */
+    private Archivo abrir(String nombreJuego) throws IOException {
+        Archivo estado = abiertos.get(nombreJuego);
+        if (estado != null) return estado;
+
+        if (!archivo(nombreJuego).exists()) {
+            compactar(nombreJuego, Collections.emptyList());
+        }
+        estado = leerValido(nombreJuego);
+        liberar(estado);
+        estado.canal = FileChannel.open(archivo(nombreJuego).toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        File cadenas = archivoCadenas(nombreJuego);
+        if (cadenas.exists()) {
+            estado.canalCadenas = FileChannel.open(cadenas.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (estado.canalCadenas.size() > estado.finCadenas) {
+                estado.canalCadenas.truncate(estado.finCadenas);
+            }
+        }
+        abiertos.put(nombreJuego, estado);
+        return estado;
+    }
+
+    /**
+     * Lee los archivos del juego, reparándolos primero si están dañados.
+     */
+    private Archivo leerValido(String nombreJuego) throws IOException {
+        Archivo estado = leer(nombreJuego);
+        if (estado == null) {
+            reparar(nombreJuego);
+            estado = leer(nombreJuego);
+            if (estado == null) {
+                throw new IOException("No se pudo reparar el archivo de records " + archivo(nombreJuego).getName());
+            }
+        }
+        return estado;
+    }
+
+    /**
+     * Lee el .rec y las cadenas del .cad de su misma generación. Un .cad de
+     * otra generación se borra.
+     *
+     * @return El estado leído, con {@link Archivo#datos} mapeado hasta que se
+     *         llame a {@link #liberar}, o null si el .rec no es válido (su
+     *         mapeo ya está liberado).
+     */
+    private Archivo leer(String nombreJuego) throws IOException {
+        File archivo = archivo(nombreJuego);
+        Arena arena = Arena.ofConfined();
+        Archivo estado;
+        try {
+            ByteBuffer datos = mapear(archivo, arena);
+            estado = leerCabecera(datos, archivo.getName());
+            if (estado == null) {
+                arena.close();
+                return null;
+            }
+            estado.datos = datos;
+            estado.arena = arena;
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+        try {
+            leerCadenasAnexadas(nombreJuego, estado);
+        } catch (IOException | RuntimeException e) {
+            liberar(estado);
+            throw e;
+        }
+        return estado;
+    }
+
+    /**
+     * Agrega al estado las cadenas del .cad si es de la misma generación que
+     * el .rec; si es de otra, lo borra una vez liberado su mapeo.
+     */
+    private void leerCadenasAnexadas(String nombreJuego, Archivo estado) throws IOException {
+        File cadenas = archivoCadenas(nombreJuego);
+        if (!cadenas.exists()) return;
+        boolean vigente;
+        try (Arena arena = Arena.ofConfined()) {
+            ByteBuffer extra = mapear(cadenas, arena);
+            vigente = esCadenasDe(extra, estado.generacion);
+            if (vigente) {
+                List<String> leidas = new ArrayList<>();
+                estado.finCadenas = leerCadenas(extra, TAMANO_CABECERA_CADENAS, Integer.MAX_VALUE,
+                        extra.capacity(), leidas);
+                for (String cadena : leidas) {
+                    estado.indices.putIfAbsent(cadena, estado.cadenas.size());
+                    estado.cadenas.add(cadena);
+                }
+            }
+        }
+        if (!vigente && !abiertos.containsKey(nombreJuego)) {
+            System.err.println("Recuperación: descartando " + cadenas.getName() + " de una compactación anterior");
+            cadenas.delete();
+        }
+    }
+
+    /**
+     * Mapea un archivo completo en solo lectura dentro de {@code arena}; el
+     * mapeo se libera al cerrarla. Si el sistema de archivos no permite
+     * mapearlo, se lee a memoria.
+     */
+    private static ByteBuffer mapear(File archivo, Arena arena) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano == 0) {
+                return ByteBuffer.allocate(0);
+            }
+            try {
+                return canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano, arena).asByteBuffer();
+            } catch (IOException | UnsupportedOperationException e) {
+                return ByteBuffer.wrap(Files.readAllBytes(archivo.toPath()));
+            }
+        }
+    }
+
+    /**
+     * Libera el mapeo del .rec leído. Después {@link Archivo#datos} ya no se puede usar.
+     */
+    private static void liberar(Archivo estado) {
+        estado.datos = null;
+        if (estado.arena != null) {
+            estado.arena.close();
+            estado.arena = null;
+        }
+    }
+
+    /**
+     * Valida la cabecera y el checksum, y lee la tabla de cadenas.
+     *
+     * @return El estado leído, o null si el archivo no es válido.
+     */
+    private Archivo leerCabecera(ByteBuffer datos, String nombreArchivo) {
+        if (datos.capacity() < TAMANO_CABECERA || datos.getInt(0) != MAGIA) {
+            System.err.println("Archivo de records binario inválido: " + nombreArchivo);
+            return null;
+        }
+        if (datos.getInt(4) != VERSION && datos.getInt(4) != 1) {
+            System.err.println("Versión no soportada en archivo " + nombreArchivo + ": " + datos.getInt(4));
+            return null;
+        }
+
+        Archivo estado = new Archivo();
+        estado.version = datos.getInt(4);
+        int cantidadCadenas = datos.getInt(8);
+        estado.bytesCadenas = datos.getInt(12);
+        estado.cantidadSlots = datos.getInt(16);
+        estado.generacion = datos.getInt(20);
+        estado.checksum = datos.getLong(24);
+
+        long fin = TAMANO_CABECERA + (long) estado.bytesCadenas + (long) estado.cantidadSlots * TAMANO_SLOT;
+        if (estado.bytesCadenas < 0 || estado.cantidadSlots < 0 || fin > datos.capacity()) {
+            System.err.println("Archivo de records truncado: " + nombreArchivo);
+            return null;
+        }
+        ByteBuffer cuerpo = datos.duplicate().position(TAMANO_CABECERA).limit((int) fin);
+        if (fnv(FNV_INICIAL, cuerpo) != estado.checksum) {
+            System.err.println("Checksum inválido en archivo " + nombreArchivo);
+            return null;
+        }
+
+        int finTabla = TAMANO_CABECERA + estado.bytesCadenas;
+        if (leerCadenas(datos, TAMANO_CABECERA, cantidadCadenas, finTabla, estado.cadenas) != finTabla) {
+            System.err.println("Tabla de cadenas inválida en archivo " + nombreArchivo);
+            return null;
+        }
+        for (int i = 0; i < estado.cadenas.size(); i++) {
+            estado.indices.putIfAbsent(estado.cadenas.get(i), i);
+        }
+        estado.cantidadIncluidas = estado.cadenas.size();
+        return estado;
+    }
+
+    /**
+     * Lee cadenas [longitud u16][UTF-8] hasta {@code cantidad} o hasta la
+     * última completa antes de {@code fin}.
+     *
+     * @return Posición siguiente a la última cadena completa.
+     */
+    private static int leerCadenas(ByteBuffer datos, int posicion, int cantidad, int fin, List<String> destino) {
+        for (int i = 0; i < cantidad && posicion + 2 <= fin; i++) {
+            int longitud = Short.toUnsignedInt(datos.getShort(posicion));
+            if (posicion + 2 + longitud > fin) break;
+            byte[] bytes = new byte[longitud];
+            datos.get(posicion + 2, bytes);
+            destino.add(new String(bytes, StandardCharsets.UTF_8));
+            posicion += 2 + longitud;
+        }
+        return posicion;
+    }
+
+    private static boolean esCadenasDe(ByteBuffer extra, int generacion) {
+        return extra.capacity() >= TAMANO_CABECERA_CADENAS
+                && extra.getInt(0) == MAGIA_CADENAS && extra.getInt(4) == generacion;
+    }
+
+    /**
+     * Guarda aparte el .rec y el .cad dañados con la extensión {@code .corrupto}
+     * y los reemplaza por un archivo nuevo con los slots recuperables: los
+     * completos desde el principio, hasta el primero que no se puede leer.
+     */
+    private void reparar(String nombreJuego) throws IOException {
+        cerrarArchivo(nombreJuego);
+        File archivo = archivo(nombreJuego);
+        File cadenas = archivoCadenas(nombreJuego);
+        boolean hayCadenas = cadenas.exists();
+        List<Stat> recuperados = new ArrayList<>();
+        int declarados;
+        try (Arena arena = Arena.ofConfined()) {
+            ByteBuffer datos = mapear(archivo, arena);
+            ByteBuffer extra = hayCadenas ? mapear(cadenas, arena) : null;
+            declarados = rescatar(datos, extra, recuperados);
+        }
+
+        // Los mapeos ya están liberados: los archivos se pueden mover
+        Path copia = archivo.toPath().resolveSibling(archivo.getName() + EXT_CORRUPTO);
+        Files.move(archivo.toPath(), copia, StandardCopyOption.REPLACE_EXISTING);
+        if (hayCadenas) {
+            Files.move(cadenas.toPath(), cadenas.toPath().resolveSibling(cadenas.getName() + EXT_CORRUPTO),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        compactar(nombreJuego, recuperados);
+        System.err.println("Recuperación: " + archivo.getName() + " dañado, se recuperaron " + recuperados.size()
+                + " de " + declarados + " records; el original quedó en " + copia.getFileName());
+    }
+
+    /**
+     * Extrae los slots legibles de un .rec dañado, sin confiar en el checksum.
+     *
+     * @return Cantidad de slots que declaraba la cabecera.
+     */
+    private static int rescatar(ByteBuffer datos, ByteBuffer extra, List<Stat> destino) {
+        if (datos.capacity() < TAMANO_CABECERA || datos.getInt(0) != MAGIA) return 0;
+        int cantidadCadenas = datos.getInt(8);
+        int bytesCadenas = datos.getInt(12);
+        int declarados = Math.max(datos.getInt(16), 0);
+        boolean verificados = datos.getInt(4) >= 2;
+        if (bytesCadenas < 0 || bytesCadenas > datos.capacity() - TAMANO_CABECERA) return declarados;
+
+        // Sin la tabla completa no se sabe dónde empiezan las cadenas del .cad
+        List<String> tabla = new ArrayList<>();
+        int finTabla = TAMANO_CABECERA + bytesCadenas;
+        if (leerCadenas(datos, TAMANO_CABECERA, cantidadCadenas, finTabla, tabla) == finTabla
+                && tabla.size() == cantidadCadenas && extra != null && esCadenasDe(extra, datos.getInt(20))) {
+            leerCadenas(extra, TAMANO_CABECERA_CADENAS, Integer.MAX_VALUE, extra.capacity(), tabla);
+        }
+
+        for (int i = 0; i < declarados; i++) {
+            long posicion = finTabla + (long) i * TAMANO_SLOT;
+            if (posicion + TAMANO_SLOT > datos.capacity()) break;
+            int clave = datos.getInt((int) posicion);
+            int nombre = datos.getInt((int) posicion + 4);
+            int valor = datos.getInt((int) posicion + 8);
+            if (verificados && datos.getInt((int) posicion + 12) != verificacion(clave, nombre, valor)) break;
+            if (clave < 0 || clave >= tabla.size() || nombre < 0 || nombre >= tabla.size()) break;
+            destino.add(new Stat(tabla.get(clave), tabla.get(nombre), valor));
+        }
+        return declarados;
+    }
+
+    /**
+     * Registra una cadena que todavía no está en la tabla, para anexarla al .cad.
+     */
+    private static void agregarCadena(Archivo estado, String cadena, List<String> nuevas) {
+        if (estado.indices.containsKey(cadena)) return;
+        if (cadena.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+            throw new IllegalArgumentException("Cadena demasiado larga para el formato binario");
+        }
+        estado.indices.put(cadena, estado.cadenas.size());
+        estado.cadenas.add(cadena);
+        nuevas.add(cadena);
+    }
+
+    /**
+     * Anexa cadenas nuevas al .cad, creándolo con la generación del .rec si no existe.
+     */
+    private void anexarCadenas(String nombreJuego, Archivo estado, List<String> nuevas) throws IOException {
+        if (estado.canalCadenas == null) {
+            estado.canalCadenas = FileChannel.open(archivoCadenas(nombreJuego).toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA_CADENAS);
+            cabecera.putInt(MAGIA_CADENAS);
+            cabecera.putInt(estado.generacion);
+            cabecera.flip();
+            escribir(estado.canalCadenas, cabecera, 0);
+            estado.finCadenas = TAMANO_CABECERA_CADENAS;
+        }
+
+        List<byte[]> codificadas = new ArrayList<>();
+        int total = 0;
+        for (String cadena : nuevas) {
+            byte[] bytes = cadena.getBytes(StandardCharsets.UTF_8);
+            codificadas.add(bytes);
+            total += 2 + bytes.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] bytes : codificadas) {
+            buffer.putShort((short) bytes.length);
+            buffer.put(bytes);
+        }
+        buffer.flip();
+        escribir(estado.canalCadenas, buffer, estado.finCadenas);
+        escritorAtomico.forzar(estado.canalCadenas);
+        estado.finCadenas += total;
+    }
+
+    private void escribirCabecera(Archivo estado) throws IOException {
+        escribir(estado.canal, cabecera(estado), 0);
+    }
+
+    private static void escribir(FileChannel canal, ByteBuffer datos, long posicion) throws IOException {
+        while (datos.hasRemaining()) {
+            posicion += canal.write(datos, posicion);
+        }
+    }
+
+    private static ByteBuffer cabecera(Archivo estado) {
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        cabecera.putInt(MAGIA);
+        cabecera.putInt(estado.version);
+        cabecera.putInt(estado.cantidadIncluidas);
+        cabecera.putInt(estado.bytesCadenas);
+        cabecera.putInt(estado.cantidadSlots);
+        cabecera.putInt(estado.generacion);
+        cabecera.putLong(estado.checksum);
+        cabecera.flip();
+        return cabecera;
+    }
+
+    private static void escribirSlot(ByteBuffer destino, int clave, int nombre, int valor) {
+        destino.putInt(clave);
+        destino.putInt(nombre);
+        destino.putInt(valor);
+        destino.putInt(verificacion(clave, nombre, valor));
+    }
+
+    /**
+     * FNV-1a de los 12 bytes de datos de un slot, reducido a 32 bits.
+     */
+    private static int verificacion(int clave, int nombre, int valor) {
+        long hash = FNV_INICIAL;
+        for (int dato : new int[]{clave, nombre, valor}) {
+            for (int desplazamiento = 24; desplazamiento >= 0; desplazamiento -= 8) {
+                hash ^= (dato >>> desplazamiento) & 0xFF;
+                hash *= FNV_PRIMO;
+            }
+        }
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    private static void internar(Archivo estado, String cadena) {
+        if (estado.indices.containsKey(cadena)) return;
+        int longitud = cadena.getBytes(StandardCharsets.UTF_8).length;
+        if (longitud > 0xFFFF) {
+            throw new IllegalArgumentException("Cadena demasiado larga para el formato binario");
+        }
+        estado.indices.put(cadena, estado.cadenas.size());
+        estado.cadenas.add(cadena);
+        estado.bytesCadenas += 2 + longitud;
+    }
+
+    /**
+     * Generación al azar distinta de la anterior, para reconocer un .cad que
+     * sobrevivió a la compactación que debía borrarlo.
+     */
+    private static int nuevaGeneracion(int anterior) {
+        int generacion;
+        do {
+            generacion = ThreadLocalRandom.current().nextInt();
+        } while (generacion == anterior || generacion == 0);
+        return generacion;
+    }
+
+    /**
+     * Extiende un hash FNV-1a de 64 bits con los bytes restantes del buffer,
+     * sin modificar su posición.
+     */
+    private static long fnv(long hash, ByteBuffer datos) {
+        for (int i = datos.position(); i < datos.limit(); i++) {
+            hash ^= datos.get(i) & 0xFF;
+            hash *= FNV_PRIMO;
+        }
+        return hash;
+    }
+
+    private void cerrarArchivo(String nombreJuego) {
+        Archivo estado = abiertos.remove(nombreJuego);
+        if (estado == null) return;
+        try {
+            estado.canal.close();
+            if (estado.canalCadenas != null) {
+                estado.canalCadenas.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error al cerrar records del juego " + nombreJuego + ": " + e.getMessage());
+        }
+    }
+
+    private File archivo(String nombreJuego) {
+        return new File(directorio, nombreJuego + EXTENSION);
+    }
+
+    private File archivoCadenas(String nombreJuego) {
+        return new File(directorio, nombreJuego + EXT_CADENAS);
+    }
+}
@@ -0,0 +1,12 @@
+package records;
+
+/**
+ * Formato de los archivos de exportación e importación de records.
+ * Ambos tienen una fila por record con el juego, la clave, el nombre y el valor.
+ */
+public enum FormatoIntercambio {
+    /** Un objeto JSON por línea: {@code {"juego":"...","clave":"...","nombre":"...","valor":0}}. */
+    JSONL,
+    /** Valores separados por comas con cabecera {@code juego,clave,nombre,valor}. */
+    CSV
+}
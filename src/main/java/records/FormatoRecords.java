@@ -0,0 +1,13 @@
+package records;
+
+/**
+ * Formato en el que {@link RecordsManager} guarda los records en disco.
+ */
+public enum FormatoRecords {
+    /** Un archivo de texto por juego que se reescribe completo en cada record. */
+    TEXTO,
+    /** Instantánea de texto más un journal de solo-anexado por juego. */
+    JOURNAL,
+    /** Archivo binario con slots de ancho fijo por juego, que se lee mapeándolo en memoria. */
+    BINARIO
+}
@@ -0,0 +1,114 @@
+package records;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Archivos {@code <juego>.hist} con la distribución completa de puntajes.
+ * Cada entrada ocupa 12 bytes: el valor (int) y su cantidad (long). Los
+ * resultados nuevos se anexan como entradas de cantidad 1 y al compactar el
+ * archivo se reemplaza atómicamente por una entrada por valor distinto.
+ * Una entrada incompleta al final del archivo (escritura interrumpida) se ignora.
+ */
+class HistogramLog {
+    static final String EXTENSION = ".hist";
+    private static final int TAMANO_ENTRADA = 12;
+
+    private final File directorio;
+    private final AtomicFileWriter escritorAtomico;
+    private final Map<String, FileChannel> abiertos = new HashMap<>();
+
+    HistogramLog(File directorio, AtomicFileWriter escritorAtomico) {
+        this.directorio = directorio;
+        this.escritorAtomico = escritorAtomico;
+    }
+
+    /**
+     * Lee la distribución guardada de un juego.
+     */
+    synchronized ScoreHistogram cargar(String nombreJuego) throws IOException {
+        ScoreHistogram histograma = new ScoreHistogram();
+        File archivo = archivo(nombreJuego);
+        if (!archivo.exists()) return histograma;
+        AtomicFileWriter.recortarRegistroIncompleto(archivo.toPath(), TAMANO_ENTRADA);
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(archivo)))) {
+            long entradas = archivo.length() / TAMANO_ENTRADA;
+            for (long i = 0; i < entradas; i++) {
+                int valor = in.readInt();
+                long cantidad = in.readLong();
+                histograma.agregar(valor, cantidad);
+            }
+        }
+        return histograma;
+    }
+
+    /**
+     * Anexa resultados al archivo del juego.
+     */
+    synchronized void anexar(String nombreJuego, int[] valores) throws IOException {
+        if (valores.length == 0) return;
+        FileChannel canal = abiertos.get(nombreJuego);
+        if (canal == null) {
+            canal = FileChannel.open(archivo(nombreJuego).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            // Descartar una entrada incompleta para no desalinear las siguientes
+            canal.truncate(canal.size() / TAMANO_ENTRADA * TAMANO_ENTRADA);
+            canal.position(canal.size());
+            abiertos.put(nombreJuego, canal);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(valores.length * TAMANO_ENTRADA);
+        for (int valor : valores) {
+            buffer.putInt(valor);
+            buffer.putLong(1);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        escritorAtomico.forzar(canal);
+    }
+
+    /**
+     * Reemplaza el archivo del juego por una entrada por cada valor distinto.
+     */
+    synchronized void compactar(String nombreJuego, ScoreHistogram histograma) throws IOException {
+        cerrarArchivo(nombreJuego);
+        escritorAtomico.escribir(archivo(nombreJuego).toPath(), salida -> {
+            DataOutputStream out = new DataOutputStream(salida);
+            for (int i = 0; i < histograma.getDistintos(); i++) {
+                out.writeInt(histograma.getValor(i));
+                out.writeLong(histograma.getConteo(i));
+            }
+            out.flush();
+        });
+    }
+
+    synchronized void eliminar(String nombreJuego) {
+        cerrarArchivo(nombreJuego);
+        archivo(nombreJuego).delete();
+    }
+
+    synchronized void cerrar() {
+        for (String nombreJuego : new ArrayList<>(abiertos.keySet())) {
+            cerrarArchivo(nombreJuego);
+        }
+    }
+
+    private void cerrarArchivo(String nombreJuego) {
+        FileChannel canal = abiertos.remove(nombreJuego);
+        if (canal == null) return;
+        try {
+            canal.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar historial del juego " + nombreJuego + ": " + e.getMessage());
+        }
+    }
+
+    private File archivo(String nombreJuego) {
+        return new File(directorio, nombreJuego + EXTENSION);
+    }
+}
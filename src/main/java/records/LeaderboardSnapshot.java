@@ -0,0 +1,134 @@
+package records;
+
+import model.Stat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Vista inmutable de los records de todos los juegos cargados, lista para mostrar.
+ * Las filas están ordenadas por juego y, dentro de cada juego, de mayor a menor.
+ *
+ * Cada versión nueva copia las filas de los juegos sin cambios tal cual y
+ * solo vuelve a leer los tableros modificados, todos en una pasada. Leer una
+ * versión no requiere ningún bloqueo ni copia.
+ */
+public final class LeaderboardSnapshot {
+    static final LeaderboardSnapshot VACIO =
+            new LeaderboardSnapshot(0, new String[0], new String[0], new String[0], new int[0]);
+
+    private final long version;
+    private final String[] juegos;
+    private final String[] claves;
+    private final String[] nombres;
+    private final int[] valores;
+
+    private LeaderboardSnapshot(long version, String[] juegos, String[] claves, String[] nombres, int[] valores) {
+        this.version = version;
+        this.juegos = juegos;
+        this.claves = claves;
+        this.nombres = nombres;
+        this.valores = valores;
+    }
+
+    /**
+     * Número de versión; aumenta con cada cambio publicado.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public int getCantidadFilas() {
+        return juegos.length;
+    }
+
+    public String getJuego(int fila) {
+        return juegos[fila];
+    }
+
+    public String getClave(int fila) {
+        return claves[fila];
+    }
+
+    public String getNombre(int fila) {
+        return nombres[fila];
+    }
+
+    public int getValor(int fila) {
+        return valores[fila];
+    }
+
+    /**
+     * Crea la versión siguiente reemplazando las filas de varios juegos,
+     * copiando una sola vez las de los demás.
+     *
+     * @param cambios Records actuales de cada juego modificado, de mayor a
+     *                menor; una lista vacía lo quita.
+     */
+    LeaderboardSnapshot conJuegos(SortedMap<String, List<Stat>> cambios) {
+        int total = juegos.length;
+        for (Map.Entry<String, List<Stat>> cambio : cambios.entrySet()) {
+            total += cambio.getValue().size() - (buscar(cambio.getKey(), false) - buscar(cambio.getKey(), true));
+        }
+
+        String[] nuevosJuegos = new String[total];
+        String[] nuevasClaves = new String[total];
+        String[] nuevosNombres = new String[total];
+        int[] nuevosValores = new int[total];
+
+        int leida = 0;
+        int fila = 0;
+        for (Map.Entry<String, List<Stat>> cambio : cambios.entrySet()) {
+            String nombreJuego = cambio.getKey();
+            int desde = buscar(nombreJuego, true);
+            copiarFilas(leida, desde, nuevosJuegos, nuevasClaves, nuevosNombres, nuevosValores, fila);
+            fila += desde - leida;
+            for (Stat stat : cambio.getValue()) {
+                nuevosJuegos[fila] = nombreJuego;
+                nuevasClaves[fila] = stat.getClave();
+                nuevosNombres[fila] = stat.getNombre();
+                nuevosValores[fila] = stat.getValor();
+                fila++;
+            }
+            leida = buscar(nombreJuego, false);
+        }
+        copiarFilas(leida, juegos.length, nuevosJuegos, nuevasClaves, nuevosNombres, nuevosValores, fila);
+        return new LeaderboardSnapshot(version + 1, nuevosJuegos, nuevasClaves, nuevosNombres, nuevosValores);
+    }
+
+    /**
+     * Crea la versión siguiente sin ninguna fila.
+     */
+    LeaderboardSnapshot vaciar() {
+        return new LeaderboardSnapshot(version + 1, VACIO.juegos, VACIO.claves, VACIO.nombres, VACIO.valores);
+    }
+
+    private void copiarFilas(int desde, int hasta, String[] nuevosJuegos, String[] nuevasClaves,
+                             String[] nuevosNombres, int[] nuevosValores, int destino) {
+        int cantidad = hasta - desde;
+        System.arraycopy(juegos, desde, nuevosJuegos, destino, cantidad);
+        System.arraycopy(claves, desde, nuevasClaves, destino, cantidad);
+        System.arraycopy(nombres, desde, nuevosNombres, destino, cantidad);
+        System.arraycopy(valores, desde, nuevosValores, destino, cantidad);
+    }
+
+    /**
+     * Primera fila del juego (o donde iría) si {@code inicio}; si no, la
+     * primera fila posterior a él. Búsqueda binaria sobre las filas ordenadas.
+     */
+    private int buscar(String nombreJuego, boolean inicio) {
+        int bajo = 0;
+        int alto = juegos.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            int comparacion = juegos[medio].compareTo(nombreJuego);
+            if (comparacion < 0 || (!inicio && comparacion == 0)) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+}
@@ -0,0 +1,69 @@
+package records;
+
+import model.Stat;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Motor de almacenamiento de records con escritura por anexado y compactación.
+ * Las implementaciones deben ser seguras para usar desde varios hilos.
+ */
+interface RecordStore {
+
+    /**
+     * Recibe los records leídos sin obligar a crear un {@link Stat} por cada uno.
+     */
+    interface Destino {
+        void aceptar(String clave, String nombre, int valor);
+    }
+
+    /**
+     * Carga todos los records almacenados de un juego, en orden de registro.
+     */
+    void cargar(String nombreJuego, Destino destino) throws IOException;
+
+    /**
+     * Agrega varios resultados al final del almacenamiento del juego.
+     */
+    void anexarLote(String nombreJuego, List<Stat> stats) throws IOException;
+
+    /**
+     * Indica si el juego acumuló suficientes entradas para compactarlo.
+     */
+    boolean necesitaCompactar(String nombreJuego);
+
+    /**
+     * Indica si el juego tiene entradas aún no compactadas.
+     */
+    boolean tienePendientes(String nombreJuego);
+
+    /**
+     * Reemplaza de forma atómica todo lo almacenado del juego por {@code mejores}.
+     */
+    void compactar(String nombreJuego, List<Stat> mejores) throws IOException;
+
+    /**
+     * Obtiene los nombres de todos los juegos con records en disco.
+     */
+    Set<String> juegosAlmacenados();
+
+    /**
+     * Cierra y elimina los archivos de un juego.
+     */
+    void eliminar(String nombreJuego);
+
+    /**
+     * Cierra todos los archivos abiertos.
+     */
+    void cerrar();
+
+    /**
+     * Pasada de recuperación al cargar un juego, después de la de
+     * {@link AtomicFileWriter#recuperar}: repara lo propio de este formato
+     * que haya dejado una caída o un archivo dañado.
+     */
+    default void recuperar(String nombreJuego) throws IOException {
+    }
+}
@@ -0,0 +1,312 @@
+package records;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lectura y escritura de records en los formatos de intercambio.
+ * Trabaja fila por fila sobre un {@link Reader} o {@link Writer}, sin
+ * acumular el contenido en memoria, así que sirve para archivos de cualquier tamaño.
+ */
+class RecordsIntercambio {
+    static final String CABECERA_CSV = "juego,clave,nombre,valor";
+
+    /**
+     * Recibe cada fila leída.
+     */
+    interface Fila {
+        void aceptar(String nombreJuego, String clave, String nombre, int valor);
+    }
+
+    private final FormatoIntercambio formato;
+
+    RecordsIntercambio(FormatoIntercambio formato) {
+        this.formato = formato;
+    }
+
+    /**
+     * Escribe la cabecera del formato, si tiene.
+     */
+    void escribirCabecera(Writer out) throws IOException {
+        if (formato == FormatoIntercambio.CSV) {
+            out.write(CABECERA_CSV);
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Escribe una fila.
+     */
+    void escribir(Writer out, String nombreJuego, String clave, String nombre, int valor) throws IOException {
+        if (formato == FormatoIntercambio.JSONL) {
+            out.write("{\"juego\":");
+            escribirJson(out, nombreJuego);
+            out.write(",\"clave\":");
+            escribirJson(out, clave);
+            out.write(",\"nombre\":");
+            escribirJson(out, nombre);
+            out.write(",\"valor\":");
+            out.write(Integer.toString(valor));
+            out.write("}\n");
+        } else {
+            escribirCsv(out, nombreJuego);
+            out.write(',');
+            escribirCsv(out, clave);
+            out.write(',');
+            escribirCsv(out, nombre);
+            out.write(',');
+            out.write(Integer.toString(valor));
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Lee todas las filas, entregándolas una a una. Las filas inválidas se
+     * informan y se saltean, incluidas las de un nombre de juego que saldría
+     * del directorio de records o con una clave o nombre que rompería los
+     * formatos de texto.
+     *
+     * @return Cantidad de filas válidas leídas.
+     */
+    long leer(Reader origen, Fila fila) throws IOException {
+        BufferedReader reader = origen instanceof BufferedReader ? (BufferedReader) origen : new BufferedReader(origen);
+        long leidas = 0;
+        long numeroLinea = 0;
+        String linea;
+        while ((linea = reader.readLine()) != null) {
+            numeroLinea++;
+            if (linea.trim().isEmpty()) continue;
+            if (formato == FormatoIntercambio.CSV) {
+                // Un campo entre comillas puede contener saltos de línea
+                while (comillasAbiertas(linea)) {
+                    String siguiente = reader.readLine();
+                    if (siguiente == null) break;
+                    numeroLinea++;
+                    linea = linea + "\n" + siguiente;
+                }
+                if (numeroLinea == 1 && linea.equals(CABECERA_CSV)) continue;
+            }
+            try {
+                String[] campos = formato == FormatoIntercambio.JSONL ? parsearJson(linea) : parsearCsv(linea);
+                fila.aceptar(campos[0], campos[1], campos[2], Integer.parseInt(campos[3].trim()));
+                leidas++;
+            } catch (IllegalArgumentException e) {
+                System.err.println("Fila inválida en línea " + numeroLinea + ": " + e.getMessage());
+            }
+        }
+        return leidas;
+    }
+
+    private static void escribirJson(Writer out, String texto) throws IOException {
+        out.write('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    private static void escribirCsv(Writer out, String texto) throws IOException {
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            out.write(texto);
+            return;
+        }
+        out.write('"');
+        out.write(texto.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /**
+     * Parsea un objeto JSON plano con los campos juego, clave, nombre y valor.
+     * Los campos desconocidos se ignoran.
+     */
+    private static String[] parsearJson(String linea) {
+        String[] campos = new String[4];
+        int[] pos = {saltarEspacios(linea, 0)};
+        esperar(linea, pos, '{');
+        if (siguiente(linea, pos) != '}') {
+            while (true) {
+                String clave = leerCadenaJson(linea, pos);
+                esperar(linea, pos, ':');
+                String valor = siguiente(linea, pos) == '"' ? leerCadenaJson(linea, pos) : leerLiteralJson(linea, pos);
+                int indice = indiceCampo(clave);
+                if (indice >= 0) campos[indice] = valor;
+                if (siguiente(linea, pos) == ',') {
+                    pos[0]++;
+                    continue;
+                }
+                break;
+            }
+        }
+        esperar(linea, pos, '}');
+        return validar(campos);
+    }
+
+    private static String leerCadenaJson(String linea, int[] pos) {
+        esperar(linea, pos, '"');
+        StringBuilder sb = new StringBuilder();
+        int i = pos[0];
+        while (i < linea.length() && linea.charAt(i) != '"') {
+            char c = linea.charAt(i++);
+            if (c == '\\') {
+                if (i >= linea.length()) break;
+                char escape = linea.charAt(i++);
+                switch (escape) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (i + 4 > linea.length()) throw new IllegalArgumentException("escape \\u incompleto");
+                        sb.append((char) Integer.parseInt(linea.substring(i, i + 4), 16));
+                        i += 4;
+                        break;
+                    default: sb.append(escape);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        if (i >= linea.length()) throw new IllegalArgumentException("cadena sin cerrar");
+        pos[0] = i + 1;
+        return sb.toString();
+    }
+
+    private static String leerLiteralJson(String linea, int[] pos) {
+        int inicio = pos[0];
+        int i = inicio;
+        while (i < linea.length() && ",}".indexOf(linea.charAt(i)) < 0) i++;
+        pos[0] = i;
+        return linea.substring(inicio, i).trim();
+    }
+
+    private static void esperar(String linea, int[] pos, char esperado) {
+        if (siguiente(linea, pos) != esperado) {
+            throw new IllegalArgumentException("se esperaba '" + esperado + "'");
+        }
+        pos[0]++;
+    }
+
+    /**
+     * Saltea espacios y devuelve el siguiente carácter sin consumirlo (0 al final).
+     */
+    private static char siguiente(String linea, int[] pos) {
+        pos[0] = saltarEspacios(linea, pos[0]);
+        return pos[0] < linea.length() ? linea.charAt(pos[0]) : 0;
+    }
+
+    private static int saltarEspacios(String linea, int i) {
+        while (i < linea.length() && Character.isWhitespace(linea.charAt(i))) i++;
+        return i;
+    }
+
+    private static String[] parsearCsv(String linea) {
+        List<String> campos = new ArrayList<>(4);
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        if (campos.size() != 4) {
+            throw new IllegalArgumentException("se esperaban 4 campos y hay " + campos.size());
+        }
+        return validar(campos.toArray(new String[0]));
+    }
+
+    private static boolean comillasAbiertas(String linea) {
+        int comillas = 0;
+        for (int i = 0; i < linea.length(); i++) {
+            if (linea.charAt(i) == '"') comillas++;
+        }
+        return comillas % 2 != 0;
+    }
+
+    private static int indiceCampo(String nombre) {
+        switch (nombre) {
+            case "juego": return 0;
+            case "clave": return 1;
+            case "nombre": return 2;
+            case "valor": return 3;
+            default: return -1;
+        }
+    }
+
+    private static String[] validar(String[] campos) {
+        for (int i = 0; i < campos.length; i++) {
+            if (campos[i] == null) {
+                throw new IllegalArgumentException("falta el campo " + CABECERA_CSV.split(",")[i]);
+            }
+        }
+        if (campos[0].isEmpty()) {
+            throw new IllegalArgumentException("nombre de juego vacío");
+        }
+        validarNombreJuego(campos[0]);
+        // Separadores de los formatos de texto (clave|nombre|valor, una fila por línea)
+        for (int i = 1; i <= 2; i++) {
+            if (contieneAlguno(campos[i], "|\n\r")) {
+                throw new IllegalArgumentException("el campo " + CABECERA_CSV.split(",")[i]
+                        + " no puede contener '|' ni saltos de línea");
+            }
+        }
+        return campos;
+    }
+
+    /**
+     * El nombre del juego forma el nombre de sus archivos de records: no puede
+     * salir del directorio de records ni contener caracteres de control.
+     */
+    private static void validarNombreJuego(String nombreJuego) {
+        if (nombreJuego.contains("..") || contieneAlguno(nombreJuego, "/\\:")) {
+            throw new IllegalArgumentException("nombre de juego no permitido: " + nombreJuego);
+        }
+        for (int i = 0; i < nombreJuego.length(); i++) {
+            if (Character.isISOControl(nombreJuego.charAt(i))) {
+                throw new IllegalArgumentException("nombre de juego con caracteres de control");
+            }
+        }
+    }
+
+    private static boolean contieneAlguno(String texto, String caracteres) {
+        for (int i = 0; i < caracteres.length(); i++) {
+            if (texto.indexOf(caracteres.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,260 @@
+package records;
+
+import model.Stat;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Journal de solo-anexado para los records de los juegos.
+ * Cada resultado se agrega como una línea al final de {@code <juego>.journal},
+ * manteniendo el archivo abierto, de modo que registrar un record cuesta O(1)
+ * sin importar cuántos haya. Periódicamente el journal se compacta en la
+ * instantánea {@code <juego>.txt} con los mejores resultados.
+ *
+ * Ambos archivos comienzan con una línea {@code #gen|N}. Al cargar, el journal
+ * solo se reaplica si su generación no es anterior a la de la instantánea; así
+ * una caída durante la compactación nunca duplica ni pierde resultados.
+ * Todos los métodos son seguros para usar desde varios hilos.
+ */
+class RecordsJournal implements RecordStore {
+    static final String EXT_SNAPSHOT = ".txt";
+    static final String EXT_JOURNAL = ".journal";
+    private static final String PREFIJO_GEN = "#gen|";
+    private static final int UMBRAL_COMPACTACION = 64;
+
+    private final File directorio;
+    private final AtomicFileWriter escritorAtomico;
+    private final Map<String, FileOutputStream> abiertos = new HashMap<>();
+    private final Map<String, Integer> pendientes = new HashMap<>();
+    private final Map<String, Long> generaciones = new HashMap<>();
+
+    RecordsJournal(File directorio, AtomicFileWriter escritorAtomico) {
+        this.directorio = directorio;
+        this.escritorAtomico = escritorAtomico;
+    }
+
+    /**
+     * Agrega varios resultados al final del journal del juego con una sola
+     * escritura y un solo fsync.
+     *
+     * @param nombreJuego Nombre del juego.
+     * @param stats       Resultados a registrar, en orden.
+     */
+    @Override
+    public synchronized void anexarLote(String nombreJuego, List<Stat> stats) throws IOException {
+        FileOutputStream out = abiertos.get(nombreJuego);
+        if (out == null) {
+            out = abrirJournal(nombreJuego);
+        }
+        StringBuilder lineas = new StringBuilder();
+        for (Stat stat : stats) {
+            lineas.append(formatear(stat)).append('\n');
+        }
+        out.write(lineas.toString().getBytes(StandardCharsets.UTF_8));
+        escritorAtomico.forzar(out.getChannel());
+        pendientes.merge(nombreJuego, stats.size(), Integer::sum);
+    }
+
+    /**
+     * Indica si el journal del juego acumuló suficientes entradas para compactarlo.
+     */
+    @Override
+    public synchronized boolean necesitaCompactar(String nombreJuego) {
+        return pendientes.getOrDefault(nombreJuego, 0) >= UMBRAL_COMPACTACION;
+    }
+
+    /**
+     * Indica si el journal del juego tiene entradas aún no compactadas.
+     */
+    @Override
+    public synchronized boolean tienePendientes(String nombreJuego) {
+        return pendientes.getOrDefault(nombreJuego, 0) > 0;
+    }
+
+    /**
+     * Escribe la instantánea con los mejores records y vacía el journal.
+     * Ambos archivos se reemplazan con escritura atómica.
+     *
+     * @param nombreJuego Nombre del juego.
+     * @param mejores     Records que forman la nueva instantánea.
+     */
+    @Override
+    public synchronized void compactar(String nombreJuego, List<Stat> mejores) throws IOException {
+        long generacion = generaciones.getOrDefault(nombreJuego, 0L) + 1;
+
+        escritorAtomico.escribir(archivo(nombreJuego, EXT_SNAPSHOT).toPath(), out -> {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(PREFIJO_GEN + generacion + "\n");
+            for (Stat stat : mejores) {
+                writer.write(formatear(stat));
+                writer.write('\n');
+            }
+            writer.flush();
+        });
+
+        cerrarJournal(nombreJuego);
+        reiniciarJournal(nombreJuego, generacion);
+    }
+
+    /**
+     * Carga la instantánea de un juego y reaplica su journal.
+     *
+     * @param nombreJuego Nombre del juego.
+     * @param destino     Recibe cada record leído, en orden.
+     */
+    @Override
+    public synchronized void cargar(String nombreJuego, Destino destino) throws IOException {
+        long genSnapshot = leer(archivo(nombreJuego, EXT_SNAPSHOT), destino, -1);
+        long genJournal = leer(archivo(nombreJuego, EXT_JOURNAL), destino, genSnapshot);
+        generaciones.put(nombreJuego, Math.max(genSnapshot, genJournal));
+
+        if (genJournal < genSnapshot) {
+            // La caída ocurrió tras escribir la instantánea: descartar el journal obsoleto
+            reiniciarJournal(nombreJuego, genSnapshot);
+        }
+    }
+
+    /**
+     * Lee un archivo de records. Si {@code genRequerida} es distinta de -1,
+     * el contenido solo se entrega si su generación no es anterior a ella.
+     *
+     * @return Generación declarada por el archivo (0 si no la declara).
+     */
+    private long leer(File archivo, Destino destino, long genRequerida) throws IOException {
+        if (!archivo.exists()) return genRequerida < 0 ? 0 : genRequerida;
+
+        long generacion = 0;
+        int contador = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(archivo), StandardCharsets.UTF_8))) {
+            String linea;
+            boolean primera = true;
+            while ((linea = reader.readLine()) != null) {
+                if (primera && linea.startsWith(PREFIJO_GEN)) {
+                    primera = false;
+                    try {
+                        generacion = Long.parseLong(linea.substring(PREFIJO_GEN.length()));
+                    } catch (NumberFormatException e) {
+                        System.err.println("Generación inválida en archivo " + archivo.getName() + ": " + linea);
+                    }
+                    if (genRequerida >= 0 && generacion < genRequerida) {
+                        // Journal anterior a la última compactación: ya está en la instantánea
+                        return generacion;
+                    }
+                    continue;
+                }
+                primera = false;
+                if (parsear(linea, destino)) {
+                    contador++;
+                } else if (!linea.isEmpty()) {
+                    System.err.println("Dato inválido en archivo " + archivo.getName() + ": " + linea);
+                }
+            }
+        }
+        if (genRequerida >= 0) {
+            pendientes.put(nombreDe(archivo), contador);
+        }
+        return generacion;
+    }
+
+    /**
+     * Obtiene los nombres de todos los juegos con instantánea o journal en disco.
+     */
+    @Override
+    public Set<String> juegosAlmacenados() {
+        Set<String> juegos = new TreeSet<>();
+        File[] archivos = directorio.listFiles((d, name) -> name.endsWith(EXT_SNAPSHOT) || name.endsWith(EXT_JOURNAL));
+        if (archivos != null) {
+            for (File archivo : archivos) {
+                juegos.add(nombreDe(archivo));
+            }
+        }
+        return juegos;
+    }
+
+    /**
+     * Cierra y elimina la instantánea y el journal de un juego.
+     */
+    @Override
+    public synchronized void eliminar(String nombreJuego) {
+        cerrarJournal(nombreJuego);
+        pendientes.remove(nombreJuego);
+        generaciones.remove(nombreJuego);
+        archivo(nombreJuego, EXT_SNAPSHOT).delete();
+        archivo(nombreJuego, EXT_JOURNAL).delete();
+    }
+
+    /**
+     * Cierra todos los journals abiertos.
+     */
+    @Override
+    public synchronized void cerrar() {
+        for (String nombreJuego : new ArrayList<>(abiertos.keySet())) {
+            cerrarJournal(nombreJuego);
+        }
+    }
+
+    /**
+     * Reemplaza atómicamente el journal por uno vacío de la generación indicada.
+     */
+    private void reiniciarJournal(String nombreJuego, long generacion) throws IOException {
+        escritorAtomico.escribir(archivo(nombreJuego, EXT_JOURNAL).toPath(),
+                out -> out.write((PREFIJO_GEN + generacion + "\n").getBytes(StandardCharsets.UTF_8)));
+        generaciones.put(nombreJuego, generacion);
+        pendientes.put(nombreJuego, 0);
+    }
+
+    private FileOutputStream abrirJournal(String nombreJuego) throws IOException {
+        File archivo = archivo(nombreJuego, EXT_JOURNAL);
+        if (!archivo.exists() || archivo.length() == 0) {
+            reiniciarJournal(nombreJuego, generaciones.getOrDefault(nombreJuego, 0L));
+        }
+        FileOutputStream out = new FileOutputStream(archivo, true);
+        abiertos.put(nombreJuego, out);
+        return out;
+    }
+
+    private void cerrarJournal(String nombreJuego) {
+        FileOutputStream out = abiertos.remove(nombreJuego);
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar journal del juego " + nombreJuego + ": " + e.getMessage());
+        }
+    }
+
+    private File archivo(String nombreJuego, String extension) {
+        return new File(directorio, nombreJuego + extension);
+    }
+
+    private static String nombreDe(File archivo) {
+        String nombre = archivo.getName();
+        return nombre.substring(0, nombre.lastIndexOf('.'));
+    }
+
+    /**
+     * Formato: clave|nombre|valor
+     */
+    static String formatear(Stat stat) {
+        return stat.getClave() + "|" + stat.getNombre() + "|" + stat.getValor();
+    }
+
+    /**
+     * Parsea una línea con formato clave|nombre|valor y la entrega al destino.
+     *
+     * @return true si la línea era válida.
+     */
+    static boolean parsear(String linea, Destino destino) {
+        String[] partes = linea.split("\\|");
+        if (partes.length != 3) return false;
+        try {
+            destino.aceptar(partes[0], partes[1], Integer.parseInt(partes[2]));
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -6,7 +6,11 @@ package records;
 
 import model.Stat;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  *
@@ -16,20 +20,82 @@ import java.util.*;
 /**
  * Gestor de records del sistema de juegos.
  * Almacena y recupera los mejores puntajes de cada juego en archivos.
- * Mantiene solo los tres mejores resultados por juego.
+ * Mantiene por juego un tablero acotado con los mejores resultados
+ * (tres por defecto, configurable por juego).
+ *
+ * En los formatos {@link FormatoRecords#JOURNAL} (por defecto) y
+ * {@link FormatoRecords#BINARIO} cada resultado se agrega al final del
+ * almacenamiento y los mejores se reescriben solo al compactar.
+ *
+ * La escritura en disco es asíncrona: {@link #registrarRecord} solo actualiza
+ * el tablero en memoria y encola el resultado, y un hilo escritor lo persiste
+ * en lotes. Use {@link #flush()} para esperar la escritura y {@link #cerrar()}
+ * al terminar la aplicación.
+ *
+ * Los records de cada juego se leen del disco la primera vez que se consultan
+ * o registran, o antes si se piden con {@link #precargar}.
+ *
+ * Opcionalmente, con {@link #activarHistorial}, un juego conserva además la
+ * distribución completa de sus puntajes para consultar rango y percentil de
+ * cualquier resultado, no solo de los que entran al tablero.
+ *
+ * Es seguro registrar y consultar records desde varios hilos. Cada juego tiene
+ * su propio bloqueo, así que partidas de juegos distintos que terminan a la vez
+ * nunca compiten entre sí.
  */
 public class RecordsManager {
     private static final String RECORDS_DIR = "records/";
     private static final int MAX_RECORDS = 3;
-    private Map<String, List<Stat>> recordsPorJuego;
+    private final ConcurrentMap<String, RecordsJuego> recordsPorJuego;
+    private final ConcurrentMap<String, Integer> capacidades;
+    private final FormatoRecords formato;
+    private RecordStore almacen;
+    private final HistogramLog historiales;
+    private final AsyncRecordWriter escritor;
+    private final AtomicFileWriter escritorAtomico = new AtomicFileWriter();
+    private final AtomicReference<LeaderboardSnapshot> tablaRecords = new AtomicReference<>(LeaderboardSnapshot.VACIO);
+    /** Juegos cuyo tablero cambió desde la última versión de la tabla. */
+    private final Set<String> juegosModificados = ConcurrentHashMap.newKeySet();
 
     /**
-     * Constructor. Inicializa el gestor y carga los records existentes.
+     * Constructor. Inicializa el gestor en formato journal.
      */
     public RecordsManager() {
-        recordsPorJuego = new HashMap<>();
+        this(FormatoRecords.JOURNAL, Collections.emptyMap());
+    }
+
+    /**
+     * Constructor. Inicializa el gestor; los records de cada juego se cargan en su primer acceso.
+     *
+     * @param formato     Formato de los archivos de records.
+     * @param capacidades Cantidad de records a conservar por juego; los juegos
+     *                    no incluidos conservan 3.
+     */
+    public RecordsManager(FormatoRecords formato, Map<String, Integer> capacidades) {
+        this(formato, capacidades, AsyncRecordWriter.INTERVALO_POR_DEFECTO_MS, AsyncRecordWriter.LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Constructor. Inicializa el gestor; los records de cada juego se cargan en su primer acceso.
+     *
+     * @param formato          Formato de los archivos de records.
+     * @param capacidades      Cantidad de records a conservar por juego.
+     * @param intervaloFlushMs Tiempo máximo que un record espera en cola antes de escribirse.
+     * @param tamanoLote       Cantidad de records que fuerza la escritura de un lote.
+     */
+    public RecordsManager(FormatoRecords formato, Map<String, Integer> capacidades,
+                          long intervaloFlushMs, int tamanoLote) {
+        this.formato = formato;
+        this.capacidades = new ConcurrentHashMap<>(capacidades);
+        recordsPorJuego = new ConcurrentHashMap<>();
         crearDirectorioSiNoExiste();
-        cargarRecords();
+        if (formato == FormatoRecords.JOURNAL) {
+            almacen = new RecordsJournal(new File(RECORDS_DIR), escritorAtomico);
+        } else if (formato == FormatoRecords.BINARIO) {
+            almacen = new BinaryRecordStore(new File(RECORDS_DIR), escritorAtomico);
+        }
+        historiales = new HistogramLog(new File(RECORDS_DIR), escritorAtomico);
+        escritor = new AsyncRecordWriter(new DestinoEnDisco(), intervaloFlushMs, tamanoLote);
     }
 
     /**
@@ -44,59 +110,452 @@ public class RecordsManager {
 
     /**
      * Registra un nuevo record para un juego específico.
-     * Si el puntaje merece estar en el top 3, actualiza la lista y guarda en archivo.
+     * Si el puntaje merece estar entre los mejores, actualiza el tablero y lo encola
+     * para guardarlo en archivo; nunca espera al disco.
+     * Los puntajes que no califican se descartan sin ningún trabajo adicional.
      *
      * @param nombreJuego Nombre del juego.
      * @param stat        Estadística del resultado obtenido.
      */
     public void registrarRecord(String nombreJuego, Stat stat) {
-        System.out.println("DEBUG: Registrando record para juego: '" + nombreJuego + "'");
-        // Obtener lista actual de records para este juego
-        List<Stat> records = recordsPorJuego.getOrDefault(nombreJuego, new ArrayList<>());
+        RecordsJuego juego = obtenerJuego(nombreJuego);
+        long secuencia;
+
+        boolean esRecord;
+
+        synchronized (juego) {
+            // Insertar en el tablero (O(log K)); si no califica y no hay historial, no hay nada que guardar
+            esRecord = juego.tablero.agregar(stat);
+            if (esRecord) {
+                juegosModificados.add(nombreJuego);
+            }
+            if (juego.historial != null) {
+                juego.historial.agregar(stat.getValor());
+            } else if (!esRecord) {
+                return;
+            }
+            secuencia = escritor.reservarSecuencia();
+        }
+
+        // Encolar para el hilo escritor, ya fuera del bloqueo del juego
+        escritor.encolar(nombreJuego, stat, esRecord, secuencia);
+    }
+
+    /**
+     * Activa el historial completo de un juego: desde ahora se guardan todos
+     * sus resultados en una distribución compacta, además del tablero.
+     * Si ya existía un historial en disco, se carga.
+     *
+     * @param nombreJuego Nombre del juego.
+     */
+    public void activarHistorial(String nombreJuego) {
+        RecordsJuego juego = obtenerJuego(nombreJuego);
+        synchronized (juego) {
+            if (juego.historial != null) return;
+            try {
+                juego.historial = historiales.cargar(nombreJuego);
+            } catch (IOException e) {
+                System.err.println("Error al cargar historial del juego " + nombreJuego + ": " + e.getMessage());
+                juego.historial = new ScoreHistogram();
+            }
+        }
+    }
+
+    /**
+     * Indica si el juego tiene el historial completo activado.
+     */
+    public boolean tieneHistorial(String nombreJuego) {
+        RecordsJuego juego = recordsPorJuego.get(nombreJuego);
+        if (juego == null) return false;
+        synchronized (juego) {
+            return juego.historial != null;
+        }
+    }
+
+    /**
+     * Obtiene la posición de un puntaje entre todos los resultados del juego (1 es el mejor).
+     * Requiere el historial completo activado.
+     *
+     * @param nombreJuego Nombre del juego.
+     * @param valor       Puntaje a consultar.
+     * @return Rango del puntaje.
+     */
+    public long getRango(String nombreJuego, int valor) {
+        RecordsJuego juego = juegoConHistorial(nombreJuego);
+        synchronized (juego) {
+            return juego.historial.getRango(valor);
+        }
+    }
+
+    /**
+     * Obtiene el porcentaje de resultados del juego con puntaje menor o igual.
+     * Requiere el historial completo activado.
+     *
+     * @param nombreJuego Nombre del juego.
+     * @param valor       Puntaje a consultar.
+     * @return Percentil entre 0 y 100.
+     */
+    public double getPercentil(String nombreJuego, int valor) {
+        RecordsJuego juego = juegoConHistorial(nombreJuego);
+        synchronized (juego) {
+            return juego.historial.getPercentil(valor);
+        }
+    }
+
+    /**
+     * Obtiene cuántos resultados del juego superan un puntaje.
+     * Requiere el historial completo activado.
+     *
+     * @param nombreJuego Nombre del juego.
+     * @param valor       Puntaje a consultar.
+     * @return Cantidad de resultados estrictamente mayores.
+     */
+    public long contarMayores(String nombreJuego, int valor) {
+        RecordsJuego juego = juegoConHistorial(nombreJuego);
+        synchronized (juego) {
+            return juego.historial.contarMayores(valor);
+        }
+    }
+
+    /**
+     * Obtiene cuántos resultados se registraron para el juego.
+     * Requiere el historial completo activado.
+     */
+    public long getTotalResultados(String nombreJuego) {
+        RecordsJuego juego = juegoConHistorial(nombreJuego);
+        synchronized (juego) {
+            return juego.historial.getTotal();
+        }
+    }
+
+    private RecordsJuego juegoConHistorial(String nombreJuego) {
+        RecordsJuego juego = recordsPorJuego.get(nombreJuego);
+        if (juego == null || !tieneHistorial(nombreJuego)) {
+            throw new IllegalStateException("El juego " + nombreJuego + " no tiene el historial completo activado");
+        }
+        return juego;
+    }
+
+    /**
+     * Obtiene el estado en memoria de un juego, cargándolo desde disco en el
+     * primer acceso. La lectura se hace bajo el bloqueo del juego, así que no
+     * detiene a quienes usan otros juegos.
+     */
+    private RecordsJuego obtenerJuego(String nombreJuego) {
+        RecordsJuego juego = recordsPorJuego.get(nombreJuego);
+        if (juego == null) {
+            juego = recordsPorJuego.computeIfAbsent(nombreJuego, k -> new RecordsJuego());
+        }
+        if (!juego.cargado) {
+            synchronized (juego) {
+                if (!juego.cargado) {
+                    juego.tablero = cargarTablero(nombreJuego);
+                    juego.cargado = true;
+                    if (juego.tablero.getTamano() > 0) {
+                        juegosModificados.add(nombreJuego);
+                    }
+                }
+            }
+        }
+        return juego;
+    }
+
+    /**
+     * Espera a que todos los records registrados hasta ahora estén en disco.
+     */
+    public void flush() {
+        escritor.flush();
+    }
+
+    /**
+     * Configura la sincronización con el disco. Por defecto ambas están activas;
+     * como los records se escriben por lotes, el costo es un fsync por lote.
+     *
+     * @param forzarArchivos   true para hacer fsync de cada archivo escrito o anexado.
+     * @param forzarDirectorio true para hacer fsync del directorio tras reemplazar un archivo.
+     */
+    public void configurarSincronizacion(boolean forzarArchivos, boolean forzarDirectorio) {
+        escritorAtomico.configurar(forzarArchivos, forzarDirectorio);
+    }
+
+    /**
+     * Indica si un puntaje entraría en el tablero de un juego. Operación O(1).
+     *
+     * @param nombreJuego Nombre del juego.
+     * @param valor       Puntaje a evaluar.
+     * @return true si el puntaje se guardaría como record.
+     */
+    public boolean calificaComoRecord(String nombreJuego, int valor) {
+        RecordsJuego juego = obtenerJuego(nombreJuego);
+        synchronized (juego) {
+            return juego.tablero.califica(valor);
+        }
+    }
+
+    /**
+     * Configura cuántos records se conservan para un juego.
+     * Si el juego ya tiene records, el tablero se reconstruye con los actuales;
+     * los resultados descartados antes del cambio no se recuperan.
+     *
+     * @param nombreJuego Nombre del juego.
+     * @param capacidad   Cantidad máxima de records (K).
+     */
+    public void setCapacidad(String nombreJuego, int capacidad) {
+        TopKRecords nuevo = new TopKRecords(capacidad);
+        capacidades.put(nombreJuego, capacidad);
+        RecordsJuego juego = recordsPorJuego.get(nombreJuego);
+        if (juego != null) {
+            synchronized (juego) {
+                if (!juego.cargado) return;
+                for (Stat stat : juego.tablero.getOrdenados()) {
+                    nuevo.agregar(stat);
+                }
+                juego.tablero = nuevo;
+                juegosModificados.add(nombreJuego);
+            }
+        }
+    }
 
-        // Agregar el nuevo resultado
-        records.add(stat);
+    /**
+     * Obtiene cuántos records se conservan para un juego.
+     */
+    public int getCapacidad(String nombreJuego) {
+        return capacidades.getOrDefault(nombreJuego, MAX_RECORDS);
+    }
 
-        // Ordenar de mayor a menor por valor
-        records.sort((s1, s2) -> Integer.compare(s2.getValor(), s1.getValor()));
+    private TopKRecords crearTablero(String nombreJuego) {
+        return new TopKRecords(getCapacidad(nombreJuego));
+    }
 
-        // Mantener solo los 3 mejores
-        if (records.size() > MAX_RECORDS) {
-            records = records.subList(0, MAX_RECORDS);
+    /**
+     * Estado en memoria de un juego. Su monitor protege al tablero.
+     */
+    private static final class RecordsJuego {
+        private volatile boolean cargado;
+        private TopKRecords tablero;
+        private ScoreHistogram historial;
+    }
+
+    /**
+     * Persiste los lotes del hilo escritor. El tablero se copia bajo el bloqueo
+     * del juego y se escribe fuera de él, para no bloquear a quien registra.
+     */
+    private class DestinoEnDisco implements AsyncRecordWriter.Destino {
+        @Override
+        public long escribirLote(String nombreJuego, List<Stat> records, List<Stat> resultados) throws IOException {
+            if (tieneHistorial(nombreJuego)) {
+                int[] valores = new int[resultados.size()];
+                for (int i = 0; i < valores.length; i++) {
+                    valores[i] = resultados.get(i).getValor();
+                }
+                historiales.anexar(nombreJuego, valores);
+            }
+            if (records.isEmpty()) {
+                return -1;
+            }
+            if (almacen == null) {
+                return escribirCompleto(nombreJuego);
+            }
+            almacen.anexarLote(nombreJuego, records);
+            if (almacen.necesitaCompactar(nombreJuego)) {
+                return escribirCompleto(nombreJuego);
+            }
+            return -1;
         }
 
-        // Actualizar la lista en memoria
-        recordsPorJuego.put(nombreJuego, records);
+        @Override
+        public long escribirCompleto(String nombreJuego) throws IOException {
+            List<Stat> mejores = Collections.emptyList();
+            ScoreHistogram historial = null;
+            long corte = escritor.ultimaSecuencia();
+            RecordsJuego juego = recordsPorJuego.get(nombreJuego);
+            if (juego != null && juego.cargado) {
+                synchronized (juego) {
+                    mejores = juego.tablero.getOrdenados();
+                    if (juego.historial != null) {
+                        historial = juego.historial.copiar();
+                    }
+                    corte = escritor.ultimaSecuencia();
+                }
+            }
+            if (historial != null) {
+                historiales.compactar(nombreJuego, historial);
+            }
+            if (almacen != null) {
+                almacen.compactar(nombreJuego, mejores);
+            } else {
+                guardarRecords(nombreJuego, mejores);
+            }
+            return corte;
+        }
+    }
 
-        // Guardar en archivo
-        guardarRecords(nombreJuego);
+    /**
+     * Obtiene la tabla con los records de todos los juegos cargados.
+     * Registrar un record solo marca su juego como modificado; la tabla se
+     * actualiza aquí, al leerla, releyendo únicamente los tableros marcados.
+     * Sin cambios, obtenerla no recorre nada; para saber si hubo cambios basta
+     * comparar {@link LeaderboardSnapshot#getVersion()}.
+     *
+     * @return Versión actual de la tabla, inmutable.
+     */
+    public LeaderboardSnapshot getTablaRecords() {
+        if (juegosModificados.isEmpty()) {
+            return tablaRecords.get();
+        }
+        synchronized (tablaRecords) {
+            SortedMap<String, List<Stat>> cambios = new TreeMap<>();
+            for (Iterator<String> it = juegosModificados.iterator(); it.hasNext(); ) {
+                String nombreJuego = it.next();
+                // Se desmarca antes de leer: un cambio posterior lo vuelve a marcar
+                it.remove();
+                List<Stat> mejores = Collections.emptyList();
+                RecordsJuego juego = recordsPorJuego.get(nombreJuego);
+                if (juego != null && juego.cargado) {
+                    synchronized (juego) {
+                        mejores = juego.tablero.getOrdenados();
+                    }
+                }
+                cambios.put(nombreJuego, mejores);
+            }
+            if (!cambios.isEmpty()) {
+                tablaRecords.set(tablaRecords.get().conJuegos(cambios));
+            }
+            return tablaRecords.get();
+        }
     }
 
     /**
      * Obtiene la lista de los mejores records de un juego específico.
      *
      * @param nombreJuego Nombre del juego.
-     * @return Lista con los mejores records (hasta 3).
+     * @return Lista inmodificable con los mejores records, de mayor a menor.
      */
     public List<Stat> getMejoresRecords(String nombreJuego) {
-        return recordsPorJuego.getOrDefault(nombreJuego, new ArrayList<>());
+        RecordsJuego juego = obtenerJuego(nombreJuego);
+        synchronized (juego) {
+            return juego.tablero.getOrdenados();
+        }
+    }
+
+    /**
+     * Exporta los records de todos los juegos, fila por fila. Se procesa un
+     * juego a la vez: los que no están en memoria se leen del disco sin
+     * quedar cargados.
+     *
+     * @param destino Donde escribir; no se cierra.
+     * @param formato Formato de intercambio.
+     * @return Cantidad de records exportados.
+     * @throws IOException Si falla la escritura.
+     */
+    public long exportar(Writer destino, FormatoIntercambio formato) throws IOException {
+        RecordsIntercambio intercambio = new RecordsIntercambio(formato);
+        escritor.flush();
+        intercambio.escribirCabecera(destino);
+        long exportados = 0;
+        for (String nombreJuego : juegosConRecords()) {
+            RecordsJuego juego = recordsPorJuego.get(nombreJuego);
+            List<Stat> mejores;
+            if (juego != null && juego.cargado) {
+                synchronized (juego) {
+                    mejores = juego.tablero.getOrdenados();
+                }
+            } else {
+                mejores = cargarTablero(nombreJuego).getOrdenados();
+            }
+            for (Stat stat : mejores) {
+                intercambio.escribir(destino, nombreJuego, stat.getClave(), stat.getNombre(), stat.getValor());
+                exportados++;
+            }
+        }
+        destino.flush();
+        return exportados;
+    }
+
+    /**
+     * Importa records fila por fila y los combina con los existentes: cada
+     * fila se inserta en el tablero de su juego solo si califica. Al terminar
+     * se escribe una única vez el tablero de cada juego modificado, y el
+     * método retorna cuando esa escritura está en disco.
+     *
+     * @param origen  De donde leer; no se cierra.
+     * @param formato Formato de intercambio.
+     * @return Cantidad de filas válidas leídas.
+     * @throws IOException Si falla la lectura.
+     */
+    public long importar(Reader origen, FormatoIntercambio formato) throws IOException {
+        Set<String> modificados = new HashSet<>();
+        long leidas;
+        try {
+            leidas = new RecordsIntercambio(formato).leer(origen, (nombreJuego, clave, nombre, valor) -> {
+                RecordsJuego juego = obtenerJuego(nombreJuego);
+                synchronized (juego) {
+                    if (juego.historial != null) {
+                        juego.historial.agregar(valor);
+                    } else if (!juego.tablero.califica(valor)) {
+                        return;
+                    }
+                    juego.tablero.agregar(new Stat(clave, nombre, valor));
+                }
+                modificados.add(nombreJuego);
+            });
+        } finally {
+            // Aun si la lectura falla a mitad, lo ya combinado en memoria se guarda
+            for (String nombreJuego : modificados) {
+                juegosModificados.add(nombreJuego);
+                escritor.encolarCompleto(nombreJuego);
+            }
+            escritor.flush();
+        }
+        System.out.println("Importados " + leidas + " records de " + modificados.size() + " juegos");
+        return leidas;
+    }
+
+    /**
+     * Nombres de los juegos con records en memoria o en disco, ordenados.
+     */
+    private Set<String> juegosConRecords() {
+        Set<String> juegos = new TreeSet<>();
+        for (Map.Entry<String, RecordsJuego> entrada : recordsPorJuego.entrySet()) {
+            if (entrada.getValue().cargado) {
+                juegos.add(entrada.getKey());
+            }
+        }
+        if (almacen != null) {
+            juegos.addAll(almacen.juegosAlmacenados());
+        }
+        // Archivos de texto: formato TEXTO, o juegos aún no importados a binario
+        File[] archivos = new File(RECORDS_DIR).listFiles((d, name) -> name.endsWith(".txt"));
+        if (archivos != null) {
+            for (File archivo : archivos) {
+                String nombre = archivo.getName();
+                juegos.add(nombre.substring(0, nombre.length() - ".txt".length()));
+            }
+        }
+        return juegos;
     }
 
     /**
      * Guarda los records de un juego específico en un archivo.
+     * El archivo se reemplaza de forma atómica: una caída a mitad de escritura
+     * deja la versión anterior intacta.
      * Manejo de excepciones: captura errores de escritura de archivos.
      *
      * @param nombreJuego Nombre del juego.
+     * @param records     Records a guardar, de mayor a menor.
      */
-    private void guardarRecords(String nombreJuego) {
-        String nombreArchivo = RECORDS_DIR + nombreJuego + ".txt";
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(nombreArchivo))) {
-            List<Stat> records = recordsPorJuego.get(nombreJuego);
-            for (Stat stat : records) {
-                // Formato: clave|nombre|valor
-                writer.write(stat.getClave() + "|" + stat.getNombre() + "|" + stat.getValor());
-                writer.newLine();
-            }
+    private void guardarRecords(String nombreJuego, List<Stat> records) {
+        File archivo = new File(RECORDS_DIR + nombreJuego + ".txt");
+        try {
+            escritorAtomico.escribir(archivo.toPath(), out -> {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                for (Stat stat : records) {
+                    // Formato: clave|nombre|valor
+                    writer.write(stat.getClave() + "|" + stat.getNombre() + "|" + stat.getValor());
+                    writer.newLine();
+                }
+                writer.flush();
+            });
         } catch (IOException e) {
             System.err.println("Error al guardar records del juego " + nombreJuego + ": " + e.getMessage());
             e.printStackTrace();
@@ -104,41 +563,119 @@ public class RecordsManager {
     }
 
     /**
-     * Carga todos los records desde los archivos existentes.
+     * Carga desde disco los records de un único juego.
      * Manejo de excepciones: captura errores de lectura de archivos y datos inválidos.
+     *
+     * @param nombreJuego Nombre del juego.
+     * @return Tablero con los records guardados (vacío si no hay archivos).
      */
-    private void cargarRecords() {
-        File dir = new File(RECORDS_DIR);
-        File[] archivos = dir.listFiles((d, name) -> name.endsWith(".txt"));
-
-        if (archivos == null) return;
-
-        for (File archivo : archivos) {
-            String nombreJuego = archivo.getName().replace(".txt", "");
-            List<Stat> records = new ArrayList<>();
-
-            try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
-                String linea;
-                while ((linea = reader.readLine()) != null) {
-                    try {
-                        // Parsear formato: clave|nombre|valor
-                        String[] partes = linea.split("\\|");
-                        if (partes.length == 3) {
-                            String clave = partes[0];
-                            String nombre = partes[1];
-                            int valor = Integer.parseInt(partes[2]);
-                            records.add(new Stat(clave, nombre, valor));
+    private TopKRecords cargarTablero(String nombreJuego) {
+        TopKRecords records = crearTablero(nombreJuego);
+        RecordStore.Destino destino = (clave, nombre, valor) -> {
+            if (records.califica(valor)) {
+                records.agregar(new Stat(clave, nombre, valor));
+            }
+        };
+
+        try {
+            // Reparar lo que haya dejado una caída antes de leer
+            escritorAtomico.recuperar(new File(RECORDS_DIR), nombreJuego);
+            if (almacen != null) {
+                almacen.recuperar(nombreJuego);
+            }
+            if (almacen == null) {
+                File archivo = new File(RECORDS_DIR + nombreJuego + ".txt");
+                if (archivo.exists()) {
+                    try (BufferedReader reader = new BufferedReader(new FileReader(archivo))) {
+                        String linea;
+                        while ((linea = reader.readLine()) != null) {
+                            // Parsear formato: clave|nombre|valor
+                            if (!RecordsJournal.parsear(linea, destino) && !linea.startsWith("#")) {
+                                System.err.println("Dato inválido en archivo " + archivo.getName() + ": " + linea);
+                            }
                         }
-                    } catch (NumberFormatException e) {
-                        System.err.println("Dato inválido en archivo " + archivo.getName() + ": " + linea);
                     }
                 }
-                recordsPorJuego.put(nombreJuego, records);
+            } else {
+                if (formato == FormatoRecords.BINARIO) {
+                    importarTexto(nombreJuego);
+                }
+                almacen.cargar(nombreJuego, destino);
+            }
+        } catch (IOException e) {
+            System.err.println("Error al cargar records del juego " + nombreJuego + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+        return records;
+    }
+
+    /**
+     * En formato binario, importa los archivos de texto (instantánea y journal)
+     * de un juego que todavía no tiene archivo binario. Los de texto se conservan.
+     */
+    private void importarTexto(String nombreJuego) throws IOException {
+        if (new File(RECORDS_DIR + nombreJuego + BinaryRecordStore.EXTENSION).exists()) return;
+        if (!new File(RECORDS_DIR + nombreJuego + RecordsJournal.EXT_SNAPSHOT).exists()
+                && !new File(RECORDS_DIR + nombreJuego + RecordsJournal.EXT_JOURNAL).exists()) return;
+
+        RecordsJournal texto = new RecordsJournal(new File(RECORDS_DIR), escritorAtomico);
+        try {
+            ((BinaryRecordStore) almacen).importar(nombreJuego, texto);
+            System.out.println("Records importados a formato binario: " + nombreJuego);
+        } finally {
+            texto.cerrar();
+        }
+    }
+
+    /**
+     * Carga en segundo plano los records de los juegos indicados, para que la
+     * primera consulta no tenga que leer el disco. Es opcional: sin precarga,
+     * cada juego se carga igualmente en su primer acceso.
+     *
+     * @param nombresJuegos Juegos a precargar.
+     */
+    public void precargar(Collection<String> nombresJuegos) {
+        List<String> pendientes = new ArrayList<>(nombresJuegos);
+        Thread hilo = new Thread(() -> {
+            for (String nombreJuego : pendientes) {
+                obtenerJuego(nombreJuego);
+            }
+        }, "records-preload");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Escribe los records pendientes, compacta los almacenamientos y cierra los archivos abiertos.
+     * Debe llamarse al cerrar la aplicación.
+     */
+    public void cerrar() {
+        escritor.close();
+        for (Map.Entry<String, RecordsJuego> entrada : recordsPorJuego.entrySet()) {
+            String nombreJuego = entrada.getKey();
+            if (!entrada.getValue().cargado) continue;
+            boolean compactarAlmacen = almacen != null && almacen.tienePendientes(nombreJuego);
+            List<Stat> mejores;
+            ScoreHistogram historial;
+            synchronized (entrada.getValue()) {
+                mejores = entrada.getValue().tablero.getOrdenados();
+                historial = entrada.getValue().historial == null ? null : entrada.getValue().historial.copiar();
+            }
+            try {
+                if (historial != null) {
+                    historiales.compactar(nombreJuego, historial);
+                }
+                if (compactarAlmacen) {
+                    almacen.compactar(nombreJuego, mejores);
+                }
             } catch (IOException e) {
-                System.err.println("Error al cargar records del archivo " + archivo.getName() + ": " + e.getMessage());
-                e.printStackTrace();
+                System.err.println("Error al compactar records del juego " + nombreJuego + ": " + e.getMessage());
             }
         }
+        historiales.cerrar();
+        if (almacen != null) {
+            almacen.cerrar();
+        }
     }
 
     /**
@@ -148,6 +685,13 @@ public class RecordsManager {
      */
     public void limpiarRecords(String nombreJuego) {
         recordsPorJuego.remove(nombreJuego);
+        juegosModificados.add(nombreJuego);
+        escritor.flush();
+        historiales.eliminar(nombreJuego);
+        if (almacen != null) {
+            almacen.eliminar(nombreJuego);
+            return;
+        }
         File archivo = new File(RECORDS_DIR + nombreJuego + ".txt");
         if (archivo.exists()) {
             archivo.delete();
@@ -159,6 +703,15 @@ public class RecordsManager {
      */
     public void limpiarTodosLosRecords() {
         recordsPorJuego.clear();
+        synchronized (tablaRecords) {
+            juegosModificados.clear();
+            tablaRecords.updateAndGet(LeaderboardSnapshot::vaciar);
+        }
+        escritor.flush();
+        historiales.cerrar();
+        if (almacen != null) {
+            almacen.cerrar();
+        }
         File dir = new File(RECORDS_DIR);
         File[] archivos = dir.listFiles();
         if (archivos != null) {
@@ -0,0 +1,147 @@
+package records;
+
+import java.util.Arrays;
+
+/**
+ * Distribución completa de puntajes de un juego, guardada como enteros primitivos.
+ * Mantiene los valores distintos ordenados y un árbol de Fenwick con la
+ * cantidad de resultados por valor, sin crear un objeto por resultado.
+ *
+ * Registrar un valor ya visto y consultar rango, percentil o cantidad de
+ * resultados mayores cuesta O(log D), siendo D la cantidad de valores
+ * distintos. Un valor nuevo cuesta O(D), algo poco frecuente en la práctica.
+ */
+public class ScoreHistogram {
+    private int[] valores = new int[16];
+    private long[] conteos = new long[16];
+    private long[] arbol = new long[17];
+    private int distintos;
+    private long total;
+
+    /**
+     * Registra un resultado.
+     */
+    public void agregar(int valor) {
+        agregar(valor, 1);
+    }
+
+    /**
+     * Registra varias veces el mismo resultado.
+     */
+    public void agregar(int valor, long cantidad) {
+        if (cantidad <= 0) return;
+        int indice = Arrays.binarySearch(valores, 0, distintos, valor);
+        if (indice < 0) {
+            insertar(-indice - 1, valor);
+            indice = -indice - 1;
+        }
+        conteos[indice] += cantidad;
+        for (int i = indice + 1; i <= distintos; i += i & -i) {
+            arbol[i] += cantidad;
+        }
+        total += cantidad;
+    }
+
+    /**
+     * Cantidad total de resultados registrados.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Cantidad de resultados con puntaje estrictamente mayor.
+     */
+    public long contarMayores(int valor) {
+        return total - contarHasta(valor);
+    }
+
+    /**
+     * Posición que ocuparía el puntaje en la tabla completa (1 es el mejor).
+     */
+    public long getRango(int valor) {
+        return contarMayores(valor) + 1;
+    }
+
+    /**
+     * Porcentaje de resultados con puntaje menor o igual, entre 0 y 100.
+     * Devuelve 0 si todavía no hay resultados.
+     */
+    public double getPercentil(int valor) {
+        if (total == 0) return 0;
+        return 100.0 * contarHasta(valor) / total;
+    }
+
+    /**
+     * Cantidad de valores distintos registrados.
+     */
+    public int getDistintos() {
+        return distintos;
+    }
+
+    /**
+     * Valor distinto en la posición indicada, en orden creciente.
+     */
+    public int getValor(int indice) {
+        return valores[indice];
+    }
+
+    /**
+     * Cantidad de resultados del valor en la posición indicada.
+     */
+    public long getConteo(int indice) {
+        return conteos[indice];
+    }
+
+    /**
+     * Crea una copia independiente.
+     */
+    public ScoreHistogram copiar() {
+        ScoreHistogram copia = new ScoreHistogram();
+        copia.valores = Arrays.copyOf(valores, valores.length);
+        copia.conteos = Arrays.copyOf(conteos, conteos.length);
+        copia.arbol = Arrays.copyOf(arbol, arbol.length);
+        copia.distintos = distintos;
+        copia.total = total;
+        return copia;
+    }
+
+    /**
+     * Cantidad de resultados con puntaje menor o igual.
+     */
+    private long contarHasta(int valor) {
+        int indice = Arrays.binarySearch(valores, 0, distintos, valor);
+        int hasta = indice >= 0 ? indice + 1 : -indice - 1;
+        long suma = 0;
+        for (int i = hasta; i > 0; i -= i & -i) {
+            suma += arbol[i];
+        }
+        return suma;
+    }
+
+    /**
+     * Inserta un valor distinto manteniendo el orden y reconstruye el árbol.
+     */
+    private void insertar(int posicion, int valor) {
+        if (distintos == valores.length) {
+            valores = Arrays.copyOf(valores, distintos * 2);
+            conteos = Arrays.copyOf(conteos, distintos * 2);
+            arbol = new long[distintos * 2 + 1];
+        }
+        System.arraycopy(valores, posicion, valores, posicion + 1, distintos - posicion);
+        System.arraycopy(conteos, posicion, conteos, posicion + 1, distintos - posicion);
+        valores[posicion] = valor;
+        conteos[posicion] = 0;
+        distintos++;
+
+        // Construcción del árbol de Fenwick en O(D)
+        Arrays.fill(arbol, 0);
+        for (int i = 1; i <= distintos; i++) {
+            arbol[i] += conteos[i - 1];
+            int padre = i + (i & -i);
+            if (padre <= distintos) {
+                arbol[padre] += arbol[i];
+            }
+        }
+    }
+}
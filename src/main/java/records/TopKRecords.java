@@ -0,0 +1,149 @@
+package records;
+
+import model.Stat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Conjunto acotado con los K mejores records de un juego.
+ * Se implementa como un min-heap de capacidad fija: la raíz es siempre el
+ * peor record del tablero, de modo que saber si un puntaje califica es O(1)
+ * y las inserciones son O(log K).
+ *
+ * La lista ordenada de mayor a menor se arma recién al pedirla, ordenando
+ * una copia del heap, y se reutiliza hasta la siguiente inserción: varias
+ * inserciones seguidas no pagan ningún ordenamiento.
+ *
+ * Ante empates se conserva el record más antiguo, igual que el orden
+ * estable que se usaba antes al reordenar la lista completa.
+ */
+public class TopKRecords {
+    private final Stat[] heap;
+    private final long[] secuencias;
+    private int tamano;
+    private long siguienteSecuencia;
+    private List<Stat> ordenados = Collections.emptyList();
+
+    /**
+     * @param capacidad Cantidad máxima de records a conservar (K).
+     */
+    public TopKRecords(int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva: " + capacidad);
+        }
+        heap = new Stat[capacidad];
+        secuencias = new long[capacidad];
+    }
+
+    /**
+     * Indica si un puntaje entraría en el tablero, sin modificarlo.
+     *
+     * @param valor Puntaje a evaluar.
+     * @return true si el puntaje mejoraría el tablero.
+     */
+    public boolean califica(int valor) {
+        return tamano < heap.length || valor > heap[0].getValor();
+    }
+
+    /**
+     * Agrega un record si califica para el tablero.
+     *
+     * @param stat Record a agregar.
+     * @return true si el tablero cambió.
+     */
+    public boolean agregar(Stat stat) {
+        if (!califica(stat.getValor())) {
+            return false;
+        }
+
+        long secuencia = siguienteSecuencia++;
+        if (tamano < heap.length) {
+            heap[tamano] = stat;
+            secuencias[tamano] = secuencia;
+            subir(tamano++);
+        } else {
+            heap[0] = stat;
+            secuencias[0] = secuencia;
+            bajar(0);
+        }
+        ordenados = null;
+        return true;
+    }
+
+    /**
+     * Obtiene los records ordenados de mayor a menor.
+     * La lista es inmodificable; se ordena una copia del heap, O(K log K),
+     * solo si el tablero cambió desde la última llamada.
+     */
+    public List<Stat> getOrdenados() {
+        List<Stat> resultado = ordenados;
+        if (resultado == null) {
+            Integer[] indices = new Integer[tamano];
+            for (int i = 0; i < tamano; i++) {
+                indices[i] = i;
+            }
+            // Mayor valor primero; con igual valor, el más antiguo
+            Arrays.sort(indices, (a, b) -> {
+                int porValor = Integer.compare(heap[b].getValor(), heap[a].getValor());
+                return porValor != 0 ? porValor : Long.compare(secuencias[a], secuencias[b]);
+            });
+            Stat[] copia = new Stat[tamano];
+            for (int i = 0; i < tamano; i++) {
+                copia[i] = heap[indices[i]];
+            }
+            resultado = Collections.unmodifiableList(Arrays.asList(copia));
+            ordenados = resultado;
+        }
+        return resultado;
+    }
+
+    public int getCapacidad() {
+        return heap.length;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Un record es peor si tiene menor valor o, con igual valor, si es más reciente.
+     */
+    private boolean esPeor(int i, int j) {
+        int vi = heap[i].getValor();
+        int vj = heap[j].getValor();
+        return vi < vj || (vi == vj && secuencias[i] > secuencias[j]);
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int padre = (i - 1) / 2;
+            if (!esPeor(i, padre)) break;
+            intercambiar(i, padre);
+            i = padre;
+        }
+    }
+
+    private void bajar(int i) {
+        while (true) {
+            int izq = 2 * i + 1;
+            if (izq >= tamano) break;
+            int menor = izq;
+            int der = izq + 1;
+            if (der < tamano && esPeor(der, izq)) menor = der;
+            if (!esPeor(menor, i)) break;
+            intercambiar(i, menor);
+            i = menor;
+        }
+    }
+
+    private void intercambiar(int i, int j) {
+        Stat s = heap[i];
+        heap[i] = heap[j];
+        heap[j] = s;
+        long q = secuencias[i];
+        secuencias[i] = secuencias[j];
+        secuencias[j] = q;
+    }
+}
@@ -0,0 +1,123 @@
+package core;
+
+import java.lang.reflect.Method;
+
+/**
+ * Compara el costo de leer el resultado de un juego de plugin (getStats()
+ * más la conversión del Stat externo) por cada camino de llamada:
+ * <ul>
+ *   <li>reflexión por llamada: getMethod e invoke en cada uso, como hacía el adaptador original;</li>
+ *   <li>Method cacheado: los Method se buscan una vez y se llama a invoke;</li>
+ *   <li>MethodHandle: {@link MetodosPlugin.InvocadorHandles}, el invocador de respaldo;</li>
+ *   <li>invocador generado: el que arma {@link GeneradorInvocadores};</li>
+ *   <li>llamada directa, como referencia.</li>
+ * </ul>
+ * No es una prueba: se ejecuta a mano con
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=core.InvocadorPluginBenchmark}.
+ * Cada camino se calienta y se mide en varias rondas; se informa la mejor, en ns por llamada.
+ */
+public class InvocadorPluginBenchmark {
+    private static final int LLAMADAS = 2_000_000;
+    private static final int RONDAS = 7;
+
+    /** Stat propio del "plugin", con los mismos accesores que uno real. */
+    public static final class StatPrueba {
+        private final int valor;
+
+        public StatPrueba(int valor) {
+            this.valor = valor;
+        }
+
+        public String getClave() {
+            return "puntos";
+        }
+
+        public String getNombre() {
+            return "Puntos";
+        }
+
+        public int getValor() {
+            return valor;
+        }
+    }
+
+    public interface EscuchaPrueba {
+        void onGameFinished(StatPrueba stat);
+    }
+
+    public static final class JuegoPrueba {
+        private int partidas;
+
+        public void iniciar() {
+            partidas++;
+        }
+
+        public StatPrueba getStats() {
+            return new StatPrueba(partidas++);
+        }
+
+        public void setGameListener(EscuchaPrueba escucha) {
+        }
+    }
+
+    private interface Camino {
+        model.Stat leer(Object juego) throws Throwable;
+    }
+
+    /** Evita que el compilador descarte las llamadas medidas. */
+    private static long sumidero;
+
+    public static void main(String[] args) throws Throwable {
+        JuegoPrueba juego = new JuegoPrueba();
+        MetodosPlugin metodos = MetodosPlugin.de(JuegoPrueba.class);
+        InvocadorPlugin generado = metodos.invocador;
+        InvocadorPlugin handles = new MetodosPlugin.InvocadorHandles(metodos);
+
+        Method getStats = JuegoPrueba.class.getMethod("getStats");
+        Method getClave = StatPrueba.class.getMethod("getClave");
+        Method getNombre = StatPrueba.class.getMethod("getNombre");
+        Method getValor = StatPrueba.class.getMethod("getValor");
+
+        System.out.println("Invocador generado: " + generado.getClass().getName());
+        System.out.println("JVM: " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+
+        medir("reflexión por llamada", juego, j -> {
+            Object stat = j.getClass().getMethod("getStats").invoke(j);
+            Class<?> claseStat = stat.getClass();
+            return new model.Stat(
+                    (String) claseStat.getMethod("getClave").invoke(stat),
+                    (String) claseStat.getMethod("getNombre").invoke(stat),
+                    (Integer) claseStat.getMethod("getValor").invoke(stat));
+        });
+        medir("Method cacheado", juego, j -> {
+            Object stat = getStats.invoke(j);
+            return new model.Stat((String) getClave.invoke(stat), (String) getNombre.invoke(stat),
+                    (Integer) getValor.invoke(stat));
+        });
+        medir("MethodHandle", juego, j -> handles.convertirStat(handles.getStats(j)));
+        medir("invocador generado", juego, j -> generado.convertirStat(generado.getStats(j)));
+        medir("llamada directa", juego, j -> {
+            StatPrueba stat = ((JuegoPrueba) j).getStats();
+            return new model.Stat(stat.getClave(), stat.getNombre(), stat.getValor());
+        });
+        System.out.println("(sumidero " + sumidero + ")");
+    }
+
+    private static void medir(String nombre, Object juego, Camino camino) throws Throwable {
+        double mejor = Double.MAX_VALUE;
+        for (int ronda = 0; ronda < RONDAS; ronda++) {
+            long inicio = System.nanoTime();
+            long suma = 0;
+            for (int i = 0; i < LLAMADAS; i++) {
+                suma += camino.leer(juego).getValor();
+            }
+            long fin = System.nanoTime();
+            sumidero += suma;
+            // Las dos primeras rondas son de calentamiento
+            if (ronda >= 2) {
+                mejor = Math.min(mejor, (fin - inicio) / (double) LLAMADAS);
+            }
+        }
+        System.out.printf("%-24s %8.1f ns/llamada%n", nombre, mejor);
+    }
+}
@@ -0,0 +1,149 @@
+package records;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import model.Stat;
+
+/**
+ * Prueba de carga de {@link RecordsManager}: varios hilos registran a la vez
+ * puntajes conocidos en varios juegos. Al terminar, cada tablero debe tener
+ * exactamente los K mejores, sin pérdidas ni duplicados, tanto en memoria
+ * como al volver a leerlos del disco con un gestor nuevo.
+ */
+class RecordsManagerConcurrenciaTest {
+    private static final String PREFIJO = "estres-";
+    private static final int HILOS = 8;
+    private static final int JUEGOS = 4;
+    private static final int POR_HILO = 500;
+    private static final int CAPACIDAD = 10;
+
+    @BeforeEach
+    @AfterEach
+    void borrarArchivosDePrueba() {
+        File[] archivos = new File("records").listFiles((d, name) -> name.startsWith(PREFIJO));
+        if (archivos != null) {
+            for (File archivo : archivos) {
+                archivo.delete();
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FormatoRecords.class)
+    void registrosConcurrentesConservanExactamenteLosMejores(FormatoRecords formato) throws Exception {
+        Map<String, Integer> capacidades = new HashMap<>();
+        for (int g = 0; g < JUEGOS; g++) {
+            capacidades.put(juego(g), CAPACIDAD);
+        }
+        // Lotes chicos e intervalo corto: muchas escrituras mientras los hilos siguen registrando
+        RecordsManager gestor = new RecordsManager(formato, capacidades, 1, 16);
+
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int t = 0; t < HILOS; t++) {
+            int hilo = t;
+            tareas.add(hilos.submit(() -> {
+                largada.await();
+                registrar(gestor, hilo);
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        hilos.shutdown();
+
+        gestor.flush();
+        LeaderboardSnapshot tabla = gestor.getTablaRecords();
+        for (int g = 0; g < JUEGOS; g++) {
+            assertEquals(esperados(), claves(gestor.getMejoresRecords(juego(g))), "tablero de " + juego(g));
+            assertEquals(esperados(), filas(tabla, juego(g)), "tabla de " + juego(g));
+        }
+        gestor.cerrar();
+
+        // Un gestor nuevo solo ve lo que quedó en disco
+        RecordsManager recargado = new RecordsManager(formato, capacidades);
+        try {
+            for (int g = 0; g < JUEGOS; g++) {
+                assertEquals(esperados(), claves(recargado.getMejoresRecords(juego(g))), "disco de " + juego(g));
+            }
+        } finally {
+            recargado.cerrar();
+        }
+    }
+
+    /**
+     * Registra en cada juego los puntajes del hilo en un orden mezclado.
+     * El puntaje i*HILOS+hilo es distinto en cada registro de un mismo juego,
+     * así el tablero esperado no depende del orden entre hilos.
+     */
+    private static void registrar(RecordsManager gestor, int hilo) {
+        List<Integer> orden = new ArrayList<>();
+        for (int i = 0; i < POR_HILO; i++) {
+            orden.add(i);
+        }
+        Collections.shuffle(orden, new Random(hilo));
+        for (int i : orden) {
+            int valor = i * HILOS + hilo;
+            for (int g = 0; g < JUEGOS; g++) {
+                gestor.registrarRecord(juego(g), new Stat(clave(valor), "Puntaje", valor));
+            }
+        }
+    }
+
+    /** Claves de los CAPACIDAD puntajes más altos, de mayor a menor. */
+    private static List<String> esperados() {
+        List<String> claves = new ArrayList<>();
+        int mayor = POR_HILO * HILOS - 1;
+        for (int k = 0; k < CAPACIDAD; k++) {
+            claves.add(clave(mayor - k) + "=" + (mayor - k));
+        }
+        return claves;
+    }
+
+    private static List<String> claves(List<Stat> records) {
+        List<String> claves = new ArrayList<>();
+        for (Stat stat : records) {
+            claves.add(stat.getClave() + "=" + stat.getValor());
+        }
+        return claves;
+    }
+
+    private static List<String> filas(LeaderboardSnapshot tabla, String nombreJuego) {
+        List<String> claves = new ArrayList<>();
+        for (int fila = 0; fila < tabla.getCantidadFilas(); fila++) {
+            if (tabla.getJuego(fila).equals(nombreJuego)) {
+                claves.add(tabla.getClave(fila) + "=" + tabla.getValor(fila));
+            }
+        }
+        return claves;
+    }
+
+    private static String juego(int g) {
+        return PREFIJO + g;
+    }
+
+    private static String clave(int valor) {
+        return "r" + valor;
+    }
+}